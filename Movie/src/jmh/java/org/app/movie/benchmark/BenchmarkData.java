@@ -0,0 +1,49 @@
+package org.app.movie.benchmark;
+
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.model.Genre;
+import org.app.movie.model.Movie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+// deterministic catalog-shaped data, so runs are comparable across commits
+final class BenchmarkData {
+
+    static final List<Genre> GENRES = List.of("action", "comedy", "crime", "detective", "drama", "fantasy", "horror", "mystery")
+            .stream()
+            .map(name -> Genre.builder().id((long) name.hashCode()).name(name).build())
+            .toList();
+
+    private BenchmarkData() {
+    }
+
+    static List<Movie> movies(int size) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<Movie> movies = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            List<Genre> genres = new ArrayList<>();
+            int count = 1 + random.nextInt(3);
+            for (int g = 0; g < count; g++) {
+                genres.add(GENRES.get(random.nextInt(GENRES.size())));
+            }
+            movies.add(Movie.builder()
+                    .id((long) i)
+                    .title("Movie title " + i)
+                    .director("Director " + random.nextInt(size / 10 + 1))
+                    .year(1950 + random.nextInt(75))
+                    .imdb((1 + random.nextInt(9)) + "." + random.nextInt(10))
+                    .genres(genres)
+                    .build());
+        }
+        return movies;
+    }
+
+    static List<MovieResponsetDto> dtos(int size) {
+        return movies(size).stream()
+                .map(movie -> new MovieResponsetDto(movie.getId(), movie.getTitle(), movie.getDirector(), movie.getYear(),
+                        String.join(",", movie.getGenres().stream().map(Genre::getName).toList()), movie.getImdb()))
+                .toList();
+    }
+}
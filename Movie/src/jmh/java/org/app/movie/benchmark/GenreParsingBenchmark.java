@@ -0,0 +1,34 @@
+package org.app.movie.benchmark;
+
+import org.app.movie.service.MovieService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// the comma split every addMovie, updateMovie, bulk item and genre filter goes through
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GenreParsingBenchmark {
+
+    @Param({"Detective", "Detective, Drama, Crime", " action ,, comedy,crime , detective,drama,fantasy,horror,mystery "})
+    private String genres;
+
+    @Benchmark
+    public List<String> parseGenreNames() {
+        return MovieService.parseGenreNames(genres);
+    }
+}
@@ -0,0 +1,72 @@
+package org.app.movie.benchmark;
+
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.mapper.MovieMapper;
+import org.app.movie.mapper.MovieMapperImpl;
+import org.app.movie.model.Movie;
+import org.app.movie.service.MovieService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// entity -> response mapping as done for updates, deletes and the NDJSON export
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MovieMappingBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private final MovieMapper movieMapper = new MovieMapperImpl();
+    private List<Movie> movies;
+
+    @Setup
+    public void setUp() {
+        movies = BenchmarkData.movies(size);
+    }
+
+    @Benchmark
+    public List<MovieResponsetDto> toDto() {
+        List<MovieResponsetDto> dtos = new ArrayList<>(movies.size());
+        for (Movie movie : movies) {
+            dtos.add(movieMapper.toDto(movie));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<MovieResponsetDto> toDtoWithGenres() {
+        List<MovieResponsetDto> dtos = new ArrayList<>(movies.size());
+        for (Movie movie : movies) {
+            MovieResponsetDto dto = movieMapper.toDto(movie);
+            dto.setGenre(MovieService.getGenresAsString(movie.getGenres()));
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<String> getGenresAsString() {
+        List<String> genres = new ArrayList<>(movies.size());
+        for (Movie movie : movies) {
+            genres.add(MovieService.getGenresAsString(movie.getGenres()));
+        }
+        return genres;
+    }
+}
@@ -0,0 +1,75 @@
+package org.app.movie.benchmark;
+
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.format.ResponseEncoder;
+import org.app.movie.format.ResponseFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// encode and decode cost of a movie list in every negotiable response format. payload sizes, raw and gzipped,
+// are printed once per fork since JMH has no column for them
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseFormatBenchmark {
+
+    @Param({"100000"})
+    private int size;
+
+    @Param({"JSON", "CBOR", "SMILE", "PROTOBUF"})
+    private ResponseFormat format;
+
+    private final ResponseEncoder responseEncoder = new ResponseEncoder(Jackson2ObjectMapperBuilder.json().build());
+    private List<MovieResponsetDto> movies;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        movies = BenchmarkData.dtos(size);
+        encoded = responseEncoder.encode(format, movies);
+        if (!decode().equals(movies)) {
+            throw new IllegalStateException(format + " did not round-trip");
+        }
+        System.out.printf("%n%s: %,d movies -> %,d bytes, %,d gzipped%n", format, size, encoded.length, gzip(encoded).length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return responseEncoder.encode(format, movies);
+    }
+
+    @Benchmark
+    public List<MovieResponsetDto> decode() throws IOException {
+        if (format == ResponseFormat.PROTOBUF) {
+            return responseEncoder.protobufSchemas().readList(encoded, MovieResponsetDto.class);
+        }
+        return responseEncoder.objectMapper(format).readerForListOf(MovieResponsetDto.class).readValue(encoded);
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body);
+        }
+        return bytes.toByteArray();
+    }
+}
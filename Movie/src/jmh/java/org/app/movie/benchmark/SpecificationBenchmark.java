@@ -0,0 +1,95 @@
+package org.app.movie.benchmark;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.model.Genre;
+import org.app.movie.model.Movie;
+import org.app.movie.service.MovieService;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.concurrent.TimeUnit;
+
+// specMovie for each filter combination, built against a real Hibernate criteria builder.
+// the session factory is bootstrapped without JDBC metadata access, so no database is needed
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpecificationBenchmark {
+
+    @Param({"none", "title", "director", "beginyear", "endyear", "years", "imdb", "minImdb", "imdbRange", "all"})
+    private String filter;
+
+    private StandardServiceRegistry registry;
+    private SessionFactory sessionFactory;
+    private MovieSearchRequest request;
+
+    @Setup
+    public void setUp() {
+        registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.DIALECT, PostgreSQLDialect.class.getName())
+                .applySetting(AvailableSettings.ALLOW_METADATA_ON_BOOT, false)
+                .applySetting(AvailableSettings.USE_SECOND_LEVEL_CACHE, false)
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClass(Movie.class)
+                .addAnnotatedClass(Genre.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        MovieSearchRequest.MovieSearchRequestBuilder builder = MovieSearchRequest.builder();
+        switch (filter) {
+            case "title" -> builder.title("Sherlock Holmes");
+            case "director" -> builder.director("Guy Ritchie");
+            case "beginyear" -> builder.beginyear(2000);
+            case "endyear" -> builder.endyear(2010);
+            case "years" -> builder.beginyear(2000).endyear(2010);
+            case "imdb" -> builder.imdb("7.6");
+            case "minImdb" -> builder.minImdb(7.0);
+            case "imdbRange" -> builder.minImdb(7.0).maxImdb(8.5);
+            case "all" -> builder.title("Sherlock Holmes").director("Guy Ritchie").beginyear(2000).endyear(2010).imdb("7.6")
+                    .minImdb(7.0).maxImdb(8.5);
+            default -> {
+            }
+        }
+        request = builder.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+        StandardServiceRegistryBuilder.destroy(registry);
+    }
+
+    @Benchmark
+    public CriteriaQuery<Movie> specMovie() {
+        CriteriaBuilder cb = sessionFactory.getCriteriaBuilder();
+        CriteriaQuery<Movie> query = cb.createQuery(Movie.class);
+        Root<Movie> root = query.from(Movie.class);
+        Specification<Movie> specification = MovieService.specMovie(request);
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        return predicate != null ? query.where(predicate) : query;
+    }
+}
@@ -0,0 +1,61 @@
+package org.app.movie.benchmark;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.app.movie.dto.request.MovieRequestDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+// bean validation of one request item: @Size, @Min, @MaxYear (CurrentYearValidator), the imdb @Pattern and @DecimalMax
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private MovieRequestDto valid;
+    private MovieRequestDto invalid;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+        valid = MovieRequestDto.builder().title("Sherlock Holmes").director("Guy Ritchie").year(2009)
+                .genres("Detective, Drama").imdb("7.6").build();
+        // every constraint fails, so message interpolation is part of the cost
+        invalid = MovieRequestDto.builder().title("S").director("G").year(3000).genres("Detective").imdb("77").build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MovieRequestDto>> validateValid() {
+        return validator.validate(valid);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<MovieRequestDto>> validateInvalid() {
+        return validator.validate(invalid);
+    }
+}
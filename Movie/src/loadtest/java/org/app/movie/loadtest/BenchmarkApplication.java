@@ -0,0 +1,38 @@
+package org.app.movie.loadtest;
+
+import org.app.movie.MovieApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// boots the API for a load run. the run's settings go in as command-line arguments: SpringApplicationBuilder.properties()
+// only registers default properties, which application.yaml outranks, so they would be silently ignored
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    // settings come first, then the caller's own arguments; a setting that didn't take effect fails the run
+    static ConfigurableApplicationContext start(Map<String, String> settings, String[] args) {
+        List<String> arguments = new ArrayList<>();
+        settings.forEach((key, value) -> arguments.add("--" + key + "=" + value));
+        arguments.addAll(List.of(args));
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MovieApplication.class)
+                .run(arguments.toArray(String[]::new));
+        settings.forEach((key, expected) -> {
+            String effective = context.getEnvironment().getProperty(key);
+            if (!expected.equals(effective)) {
+                context.close();
+                throw new IllegalStateException(key + " resolved to " + effective + " but the run needs " + expected);
+            }
+        });
+        return context;
+    }
+
+    static String baseUrl(ConfigurableApplicationContext context) {
+        return "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+    }
+}
@@ -0,0 +1,72 @@
+package org.app.movie.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// latencies of one route template in microseconds, from 1µs up to 5 minutes at 3 significant digits
+class EndpointStats {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final String route;
+    private final Histogram histogram = new ConcurrentHistogram(1, HIGHEST_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder clientErrors = new LongAdder();
+    private final LongAdder serverErrors = new LongAdder();
+
+    EndpointStats(String route) {
+        this.route = route;
+    }
+
+    String route() {
+        return route;
+    }
+
+    // status 0 stands for a request that never got a response (timeout, connection refused)
+    void record(long latencyNanos, int status) {
+        histogram.recordValue(Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(latencyNanos), 1), HIGHEST_MICROS));
+        if (status >= 500 || status == 0) {
+            serverErrors.increment();
+            errors.increment();
+        } else if (status >= 400) {
+            clientErrors.increment();
+            errors.increment();
+        }
+    }
+
+    void reset() {
+        histogram.reset();
+        errors.reset();
+        clientErrors.reset();
+        serverErrors.reset();
+    }
+
+    LoadReport.EndpointResult result(double seconds) {
+        long count = histogram.getTotalCount();
+        long failed = errors.sum();
+        return new LoadReport.EndpointResult(route,
+                count,
+                failed,
+                clientErrors.sum(),
+                serverErrors.sum(),
+                count == 0 ? 0 : (double) failed / count,
+                seconds > 0 ? count / seconds : 0,
+                millis(histogram.getMean()),
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()));
+    }
+
+    Histogram histogram() {
+        return histogram;
+    }
+
+    private static double millis(double micros) {
+        return Math.round(micros) / 1000d;
+    }
+}
@@ -0,0 +1,102 @@
+package org.app.movie.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// closed-loop HTTP load: every client sends its next request as soon as the previous one is answered.
+// "{id}" in a path is replaced by a random catalog id per request
+class LoadDriver {
+
+    private LoadDriver() {
+    }
+
+    static Result run(String name, String baseUrl, List<String> paths, long[] ids, int concurrency, Duration duration,
+                      String accept) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        ExecutorService clients = Executors.newFixedThreadPool(concurrency);
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        long deadline = System.nanoTime() + duration.toNanos();
+        long start = System.nanoTime();
+        for (int worker = 0; worker < concurrency; worker++) {
+            int slot = worker;
+            clients.execute(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    String path = paths.get(random.nextInt(paths.size())).replace("{id}", Long.toString(ids[random.nextInt(ids.length)]));
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                            .timeout(Duration.ofSeconds(30))
+                            .header("Accept", accept)
+                            .GET()
+                            .build();
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() >= 400) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception ex) {
+                        errors.incrementAndGet();
+                    }
+                    if (count == samples.length) {
+                        samples = Arrays.copyOf(samples, samples.length * 2);
+                    }
+                    samples[count++] = System.nanoTime() - sent;
+                }
+                latencies[slot] = samples;
+                counts[slot] = count;
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(duration.toSeconds() + 60, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int worker = 0; worker < concurrency; worker++) {
+            if (latencies[worker] != null) {
+                System.arraycopy(latencies[worker], 0, all, offset, counts[worker]);
+                offset += counts[worker];
+            }
+        }
+        Arrays.sort(all, 0, offset);
+        return new Result(name, Arrays.copyOf(all, offset), offset / (elapsed / 1_000_000_000d), errors.get());
+    }
+
+    static void print(String title, List<Result> results) {
+        System.out.printf("%n%s%n", title);
+        System.out.printf("%-10s %12s %10s %10s %10s %10s %8s%n", "mode", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %12.1f %10.2f %10.2f %10.2f %10.2f %8d%n", result.name(), result.throughput(),
+                    result.percentile(50), result.percentile(99), result.percentile(99.9), result.percentile(100), result.errors());
+        }
+    }
+
+    record Result(String name, long[] sortedNanos, double throughput, long errors) {
+
+        double percentile(double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * sortedNanos.length) - 1;
+            return sortedNanos[Math.min(Math.max(index, 0), sortedNanos.length - 1)] / 1_000_000d;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.app.movie.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+// one run of the harness; the JSON written from it is what gets diffed across versions
+record LoadReport(String version,
+                  String startedAt,
+                  Map<String, Object> settings,
+                  List<PhaseResult> phases) {
+
+    record PhaseResult(String mode,
+                       // closed: client count, open: target requests per second
+                       double load,
+                       double seconds,
+                       EndpointResult total,
+                       List<EndpointResult> endpoints) {
+    }
+
+    record EndpointResult(String route,
+                          long requests,
+                          long errors,
+                          long clientErrors,
+                          long serverErrors,
+                          double errorRate,
+                          double throughput,
+                          double meanMs,
+                          double p50Ms,
+                          double p90Ms,
+                          double p99Ms,
+                          double p999Ms,
+                          double maxMs) {
+    }
+
+    void write(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), this);
+    }
+
+    void print() {
+        for (PhaseResult phase : phases) {
+            System.out.printf("%n%s load=%s over %.0fs%n", phase.mode(), phase.load(), phase.seconds());
+            System.out.printf("%-34s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+                    "route", "requests", "req/s", "err %", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (EndpointResult result : phase.endpoints()) {
+                print(result);
+            }
+            print(phase.total());
+        }
+    }
+
+    private static void print(EndpointResult result) {
+        System.out.printf("%-34s %9d %9.1f %7.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n", result.route(), result.requests(),
+                result.throughput(), result.errorRate() * 100, result.p50Ms(), result.p90Ms(), result.p99Ms(),
+                result.p999Ms(), result.maxMs());
+    }
+}
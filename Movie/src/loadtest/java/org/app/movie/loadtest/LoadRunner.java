@@ -0,0 +1,142 @@
+package org.app.movie.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// drives a workload either closed-loop (fixed client count, each waits for its response) or open-loop (fixed arrival rate).
+// open-loop latency is taken from the moment a request was due, not when it got sent, so a stalled server is charged
+// for the requests it delayed instead of hiding them (coordinated omission)
+class LoadRunner {
+
+    private final Workload workload;
+    private final HttpClient client;
+    private final Map<String, EndpointStats> stats = new LinkedHashMap<>();
+
+    LoadRunner(Workload workload) {
+        this.workload = workload;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newCachedThreadPool())
+                .build();
+        workload.routes().forEach(route -> stats.put(route, new EndpointStats(route)));
+    }
+
+    LoadReport.PhaseResult closed(int clients, Duration warmup, Duration duration) throws InterruptedException {
+        runClosed(clients, warmup);
+        stats.values().forEach(EndpointStats::reset);
+        long start = System.nanoTime();
+        runClosed(clients, duration);
+        return result("closed", clients, (System.nanoTime() - start) / 1e9);
+    }
+
+    LoadReport.PhaseResult open(double ratePerSecond, int maxInFlight, Duration warmup, Duration duration) throws InterruptedException {
+        runOpen(ratePerSecond, maxInFlight, warmup);
+        stats.values().forEach(EndpointStats::reset);
+        long start = System.nanoTime();
+        runOpen(ratePerSecond, maxInFlight, duration);
+        return result("open", ratePerSecond, (System.nanoTime() - start) / 1e9);
+    }
+
+    private void runClosed(int clients, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService workers = Executors.newFixedThreadPool(clients);
+        for (int i = 0; i < clients; i++) {
+            workers.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    Workload.Operation operation = workload.next(random);
+                    Workload.Call call = operation.call().apply(random);
+                    if (call == null) {
+                        continue;
+                    }
+                    long sent = System.nanoTime();
+                    HttpResponse<String> response = null;
+                    try {
+                        response = client.send(call.request(), HttpResponse.BodyHandlers.ofString());
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (Exception ex) {
+                        // recorded as status 0 below
+                    }
+                    complete(operation, call, response, System.nanoTime() - sent);
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(duration.toSeconds() + 120, TimeUnit.SECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+
+    // requests that would exceed maxInFlight are recorded as errors at their due time instead of queueing without bound
+    private void runOpen(double ratePerSecond, int maxInFlight, Duration duration) throws InterruptedException {
+        long interval = (long) (1_000_000_000L / ratePerSecond);
+        long start = System.nanoTime();
+        long total = (long) (duration.toNanos() / (double) interval);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (long i = 0; i < total; i++) {
+            long due = start + i * interval;
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Workload.Operation operation = workload.next(random);
+            Workload.Call call = operation.call().apply(random);
+            if (call == null) {
+                continue;
+            }
+            if (!inFlight.tryAcquire()) {
+                stats.get(operation.route()).record(System.nanoTime() - due, 0);
+                continue;
+            }
+            client.sendAsync(call.request(), HttpResponse.BodyHandlers.ofString())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        complete(operation, call, response, System.nanoTime() - due);
+                    });
+        }
+        // let the tail of the schedule finish before the phase is measured
+        if (!inFlight.tryAcquire(maxInFlight, 120, TimeUnit.SECONDS)) {
+            System.err.println("Open-loop phase ended with requests still in flight");
+            return;
+        }
+        inFlight.release(maxInFlight);
+    }
+
+    private void complete(Workload.Operation operation, Workload.Call call, HttpResponse<String> response, long latencyNanos) {
+        stats.get(operation.route()).record(latencyNanos, response == null ? 0 : response.statusCode());
+        if (response != null && call.onResponse() != null) {
+            call.onResponse().accept(response);
+        }
+    }
+
+    private LoadReport.PhaseResult result(String mode, double load, double seconds) {
+        EndpointStats total = new EndpointStats("TOTAL");
+        List<LoadReport.EndpointResult> endpoints = stats.values().stream()
+                .peek(endpoint -> total.histogram().add(endpoint.histogram()))
+                .map(endpoint -> endpoint.result(seconds))
+                .toList();
+        long errors = endpoints.stream().mapToLong(LoadReport.EndpointResult::errors).sum();
+        long clientErrors = endpoints.stream().mapToLong(LoadReport.EndpointResult::clientErrors).sum();
+        long serverErrors = endpoints.stream().mapToLong(LoadReport.EndpointResult::serverErrors).sum();
+        LoadReport.EndpointResult sum = total.result(seconds);
+        return new LoadReport.PhaseResult(mode, load, seconds,
+                new LoadReport.EndpointResult(sum.route(), sum.requests(), errors, clientErrors, serverErrors,
+                        sum.requests() == 0 ? 0 : (double) errors / sum.requests(), sum.throughput(), sum.meanMs(),
+                        sum.p50Ms(), sum.p90Ms(), sum.p99Ms(), sum.p999Ms(), sum.maxMs()),
+                endpoints);
+    }
+}
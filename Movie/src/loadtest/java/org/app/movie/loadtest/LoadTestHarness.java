@@ -0,0 +1,161 @@
+package org.app.movie.loadtest;
+
+import org.app.movie.MovieApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// end-to-end load test: boots the API against a throwaway Postgres (or the configured database), seeds a catalog over
+// HTTP, drives the weighted route mix closed-loop and/or open-loop and writes per-route percentiles as JSON.
+//
+//   ./gradlew loadTest -Dloadtest.movies=50000 -Dloadtest.mode=both -Dloadtest.rate=800 -Dloadtest.duration=PT60S
+//
+// closed-loop numbers are service time at a fixed client count; open-loop numbers are response time at a fixed arrival
+// rate, measured from when each request was due, which is what users see once the server falls behind
+public class LoadTestHarness {
+
+    private static final int MOVIES = Integer.getInteger("loadtest.movies", 10_000);
+    private static final int GENRES = Integer.getInteger("loadtest.genres", 20);
+    private static final String MODE = System.getProperty("loadtest.mode", "both");
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 64);
+    private static final double RATE = Double.parseDouble(System.getProperty("loadtest.rate", "500"));
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("loadtest.max-in-flight", 2_000);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("loadtest.warmup", "PT15S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+    private static final String MIX = System.getProperty("loadtest.mix", Workload.DEFAULT_MIX);
+    // container: a postgres:16 Testcontainer; configured: whatever DB_* / application.yaml point at
+    private static final String DATABASE = System.getProperty("loadtest.database", "container");
+    private static final String OUTPUT = System.getProperty("loadtest.output",
+            "build/reports/loadtest/" + DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC).format(Instant.now()) + ".json");
+
+    private static final int SEED_BATCH = 500;
+    // share of seeded movies handed to the write routes instead of the read mix
+    private static final int DISPOSABLE_PERCENT = 10;
+
+    private static final HttpClient CLIENT = HttpClient.newHttpClient();
+
+    public static void main(String[] args) throws Exception {
+        PostgreSQLContainer<?> postgres = null;
+        // a random port so a running instance doesn't collide, and no SQL echoed to stdout inside the measured window
+        Map<String, String> settings = new LinkedHashMap<>(Map.of("server.port", "0", "spring.jpa.show-sql", "false"));
+        if (DATABASE.equals("container")) {
+            postgres = new PostgreSQLContainer<>("postgres:16-alpine").withDatabaseName("postgres");
+            postgres.start();
+            settings.put("DB_HOSTNAME", postgres.getHost());
+            settings.put("DB_PORT", Integer.toString(postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT)));
+            settings.put("DB_USERNAME", postgres.getUsername());
+            settings.put("DB_PASSWORD", postgres.getPassword());
+        }
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start(settings, args)) {
+            String baseUrl = BenchmarkApplication.baseUrl(context);
+            Workload workload = seed(baseUrl);
+            LoadRunner runner = new LoadRunner(workload);
+            Instant started = Instant.now();
+            List<LoadReport.PhaseResult> phases = new ArrayList<>();
+            if (!MODE.equals("open")) {
+                phases.add(runner.closed(CONCURRENCY, WARMUP, DURATION));
+            }
+            if (!MODE.equals("closed")) {
+                phases.add(runner.open(RATE, MAX_IN_FLIGHT, WARMUP, DURATION));
+            }
+            LoadReport report = new LoadReport(MovieApplication.class.getPackage().getImplementationVersion(),
+                    started.toString(), settings(), phases);
+            report.print();
+            Path output = Path.of(OUTPUT);
+            report.write(output);
+            System.out.println("\nResults written to " + output.toAbsolutePath());
+        } finally {
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+    }
+
+    private static Workload seed(String baseUrl) throws Exception {
+        long start = System.nanoTime();
+        List<String> genreNames = new ArrayList<>();
+        List<Long> genreIds = new ArrayList<>();
+        for (int i = 0; i < GENRES; i++) {
+            String name = "genre-" + i;
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/genre"))
+                    .header("Content-Type", "text/plain")
+                    .POST(HttpRequest.BodyPublishers.ofString(name)));
+            String location = response.headers().firstValue("Location").orElseThrow();
+            genreIds.add(Long.parseLong(location.substring(location.lastIndexOf('/') + 1)));
+            genreNames.add(name);
+        }
+
+        List<String> directors = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, MOVIES / 20); i++) {
+            directors.add("Director " + i);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Long> movieIds = new ArrayList<>(MOVIES);
+        for (int seeded = 0; seeded < MOVIES; seeded += SEED_BATCH) {
+            List<String> batch = new ArrayList<>();
+            for (int i = seeded; i < Math.min(MOVIES, seeded + SEED_BATCH); i++) {
+                String genres = genreNames.get(random.nextInt(genreNames.size()));
+                if (random.nextInt(3) == 0) {
+                    genres += "," + genreNames.get(random.nextInt(genreNames.size()));
+                }
+                batch.add("{\"title\":\"Seeded movie " + i + "\",\"director\":\"" + directors.get(random.nextInt(directors.size()))
+                        + "\",\"year\":" + (1950 + random.nextInt(70)) + ",\"genres\":\"" + genres
+                        + "\",\"imdb\":\"" + (1 + random.nextInt(9)) + "." + random.nextInt(10) + "\"}");
+            }
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(baseUrl + "/movie/bulk"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("[" + String.join(",", batch) + "]")));
+            movieIds.addAll(Workload.bulkIds(response.body()));
+        }
+        if (movieIds.isEmpty()) {
+            throw new IllegalStateException("Seeding created no movies");
+        }
+        System.out.printf("Seeded %d movies over %d genres in %d ms%n",
+                movieIds.size(), genreIds.size(), (System.nanoTime() - start) / 1_000_000);
+
+        int disposable = movieIds.size() * DISPOSABLE_PERCENT / 100;
+        List<Long> disposableMovies = movieIds.subList(movieIds.size() - disposable, movieIds.size());
+        long[] readIds = movieIds.subList(0, movieIds.size() - disposable).stream().mapToLong(Long::longValue).toArray();
+        return new Workload(baseUrl, readIds, genreIds.stream().mapToLong(Long::longValue).toArray(), genreNames, directors,
+                disposableMovies, MIX);
+    }
+
+    private static HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+        HttpResponse<String> response = CLIENT.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private static Map<String, Object> settings() {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("movies", MOVIES);
+        settings.put("genres", GENRES);
+        settings.put("mode", MODE);
+        settings.put("concurrency", CONCURRENCY);
+        settings.put("rate", RATE);
+        settings.put("maxInFlight", MAX_IN_FLIGHT);
+        settings.put("warmup", WARMUP.toString());
+        settings.put("duration", DURATION.toString());
+        settings.put("database", DATABASE);
+        settings.put("mix", MIX);
+        settings.put("javaVersion", Runtime.version().toString());
+        settings.put("processors", Runtime.getRuntime().availableProcessors());
+        return settings;
+    }
+}
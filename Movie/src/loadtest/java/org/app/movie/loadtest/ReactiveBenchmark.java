@@ -0,0 +1,39 @@
+package org.app.movie.loadtest;
+
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// same reads through the blocking MVC endpoints and the R2DBC-backed /reactive ones, one app instance, same load.
+//
+//   ./gradlew reactiveBenchmark -Dbenchmark.concurrency=1000 -Dbenchmark.duration=PT60S
+public class ReactiveBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1000);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("benchmark.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("benchmark.duration", "PT30S"));
+    private static final List<String> MVC_PATHS = List.of("/movie/{id}", "/movie/all?after={id}&limit=50");
+    private static final List<String> REACTIVE_PATHS = List.of("/reactive/movie/{id}", "/reactive/movie/all?after={id}&limit=50");
+    // lists stream as NDJSON; a single movie (Mono) only has a JSON representation
+    private static final String REACTIVE_ACCEPT = "application/x-ndjson, application/json;q=0.9";
+
+    public static void main(String[] args) throws Exception {
+        // the MVC reads must hit the database like the reactive ones, not the pre-serialized byte cache
+        try (ConfigurableApplicationContext context = BenchmarkApplication.start(Map.of(
+                "server.port", "0",
+                "movie.response-cache.enabled", "false",
+                "spring.jpa.show-sql", "false"), args)) {
+            String baseUrl = BenchmarkApplication.baseUrl(context);
+            long[] ids = VirtualThreadBenchmark.catalogIds(context);
+            List<LoadDriver.Result> results = new ArrayList<>();
+            LoadDriver.run("mvc", baseUrl, MVC_PATHS, ids, CONCURRENCY, WARMUP, "application/json");
+            results.add(LoadDriver.run("mvc", baseUrl, MVC_PATHS, ids, CONCURRENCY, DURATION, "application/json"));
+            LoadDriver.run("reactive", baseUrl, REACTIVE_PATHS, ids, CONCURRENCY, WARMUP, REACTIVE_ACCEPT);
+            results.add(LoadDriver.run("reactive", baseUrl, REACTIVE_PATHS, ids, CONCURRENCY, DURATION, REACTIVE_ACCEPT));
+            LoadDriver.print("concurrency=" + CONCURRENCY + " duration=" + DURATION, results);
+        }
+    }
+}
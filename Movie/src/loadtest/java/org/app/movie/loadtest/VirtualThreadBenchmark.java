@@ -0,0 +1,57 @@
+package org.app.movie.loadtest;
+
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.repository.MovieRepository;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// boots the API twice against the configured database, once on Tomcat's platform threads and once on virtual threads,
+// drives both with the same closed-loop client load and prints throughput and latency percentiles side by side.
+//
+//   ./gradlew virtualThreadBenchmark -Dbenchmark.concurrency=2000 -Dbenchmark.duration=PT60S
+//
+// response caching is switched off so every request takes the blocking JDBC path being compared
+public class VirtualThreadBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1000);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("benchmark.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("benchmark.duration", "PT30S"));
+    private static final List<String> PATHS = List.of(System.getProperty("benchmark.paths",
+            "/movie/{id},/movie/all?after={id}&limit=50").split(","));
+
+    public static void main(String[] args) throws Exception {
+        if (Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need a Java 21+ runtime, this is " + Runtime.version());
+        }
+        List<LoadDriver.Result> results = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            try (ConfigurableApplicationContext context = BenchmarkApplication.start(Map.of(
+                    "server.port", "0",
+                    "spring.threads.virtual.enabled", Boolean.toString(virtual),
+                    "movie.response-cache.enabled", "false",
+                    "spring.jpa.show-sql", "false"), args)) {
+                String baseUrl = BenchmarkApplication.baseUrl(context);
+                long[] ids = catalogIds(context);
+                String mode = virtual ? "virtual" : "platform";
+                LoadDriver.run(mode, baseUrl, PATHS, ids, CONCURRENCY, WARMUP, "application/json");
+                results.add(LoadDriver.run(mode, baseUrl, PATHS, ids, CONCURRENCY, DURATION, "application/json"));
+            }
+        }
+        LoadDriver.print("concurrency=" + CONCURRENCY + " duration=" + DURATION + " paths=" + PATHS, results);
+    }
+
+    static long[] catalogIds(ConfigurableApplicationContext context) {
+        long[] ids = context.getBean(MovieRepository.class).findPageAfter(0L, Limit.of(10_000)).stream()
+                .mapToLong(MovieResponsetDto::getId)
+                .toArray();
+        if (ids.length == 0) {
+            throw new IllegalStateException("The catalog is empty, load some movies first (POST /movie/bulk)");
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,242 @@
+package org.app.movie.loadtest;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// weighted mix over every MovieController and GenreController route. reads hit the seeded catalog; writes only touch
+// rows the workload created itself, so a long run doesn't turn the read mix into a stream of 404s
+class Workload {
+
+    static final String DEFAULT_MIX = "GET /movie/{id}=30,GET /movie/all=10,GET /movie/genre=8,GET /movie/genres=6,"
+            + "POST /movie/search=8,GET /movie/export=1,POST /movie=4,PUT /movie/{id}=3,DELETE /movie/{id}=2,"
+            + "POST /movie/bulk=1,POST /movie/bulk/delete=1,POST /movie/bulk/delete/filter=1,"
+            + "GET /genre/all=5,GET /genre/{id}=5,POST /genre=2,PUT /genre/{id}=1,DELETE /genre/{id}=1,POST /genre/bulk/delete=1";
+
+    private static final Pattern CREATED_ID = Pattern.compile("/(\\d+)$");
+    private static final Pattern BULK_IDS = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final String baseUrl;
+    private final long[] movieIds;
+    private final long[] genreIds;
+    private final List<String> genreNames;
+    private final List<String> directors;
+
+    // rows created by the workload, consumed by its deletes
+    private final ConcurrentLinkedDeque<Long> disposableMovies = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<String> disposableDirectors = new ConcurrentLinkedDeque<>();
+    private final ConcurrentLinkedDeque<Long> disposableGenres = new ConcurrentLinkedDeque<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<String, Operation> operations = new LinkedHashMap<>();
+    private final Operation[] picks;
+
+    // a request plus what to do with its response; null when the operation has nothing to work on right now
+    record Call(HttpRequest request, Consumer<HttpResponse<String>> onResponse) {
+    }
+
+    record Operation(String route, Function<ThreadLocalRandom, Call> call) {
+    }
+
+    Workload(String baseUrl, long[] movieIds, long[] genreIds, List<String> genreNames, List<String> directors,
+             List<Long> disposableMovies, String mix) {
+        this.baseUrl = baseUrl;
+        this.movieIds = movieIds;
+        this.genreIds = genreIds;
+        this.genreNames = genreNames;
+        this.directors = directors;
+        this.disposableMovies.addAll(disposableMovies);
+        register();
+        this.picks = weighted(mix);
+    }
+
+    Operation next(ThreadLocalRandom random) {
+        return picks[random.nextInt(picks.length)];
+    }
+
+    List<String> routes() {
+        List<String> routes = new ArrayList<>();
+        for (Operation pick : picks) {
+            if (!routes.contains(pick.route())) {
+                routes.add(pick.route());
+            }
+        }
+        return routes;
+    }
+
+    private void register() {
+        add("GET /movie/{id}", random -> get("/movie/" + movieId(random)));
+        add("GET /movie/all", random -> get("/movie/all?limit=50&after=" + (random.nextBoolean() ? 0 : movieId(random))));
+        add("GET /movie/genre", random -> get("/movie/genre?limit=50&genre=" + encode(genreName(random))));
+        add("GET /movie/genres", random -> get("/movie/genres?limit=50&all=" + encode(genreName(random))
+                + "&none=" + encode(genreName(random))));
+        add("POST /movie/search", random -> {
+            int from = 1950 + random.nextInt(60);
+            String body = switch (random.nextInt(3)) {
+                case 0 -> "{\"director\":\"" + director(random) + "\"}";
+                case 1 -> "{\"beginyear\":" + from + ",\"endyear\":" + (from + 5) + "}";
+                default -> "{\"query\":\"" + director(random).split(" ")[0].toLowerCase() + "\",\"limit\":20}";
+            };
+            return new Call(post("/movie/search", body), null);
+        });
+        add("GET /movie/export", random -> get("/movie/export"));
+        add("POST /movie", random -> new Call(post("/movie", movieJson(random, "Loadtest director " + random.nextInt(100))),
+                response -> createdId(response, disposableMovies)));
+        // updated rows are taken out of the pool while in flight, so a concurrent delete can't turn the update into a 404
+        add("PUT /movie/{id}", random -> {
+            Long id = disposableMovies.pollLast();
+            if (id == null) {
+                return null;
+            }
+            return new Call(request("/movie/" + id).PUT(json("{\"title\":\"Updated " + sequence.incrementAndGet() + "\",\"year\":" + (1950 + random.nextInt(70)) + "}")).build(),
+                    response -> disposableMovies.add(id));
+        });
+        add("DELETE /movie/{id}", random -> {
+            Long id = disposableMovies.pollFirst();
+            return id == null ? null : new Call(request("/movie/" + id).DELETE().build(), null);
+        });
+        add("POST /movie/bulk", random -> {
+            String director = "Bulk director " + sequence.incrementAndGet();
+            List<String> movies = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                movies.add(movieJson(random, director));
+            }
+            return new Call(post("/movie/bulk", "[" + String.join(",", movies) + "]"), response -> {
+                if (response.statusCode() < 400) {
+                    disposableDirectors.add(director);
+                }
+            });
+        });
+        add("POST /movie/bulk/delete", random -> {
+            List<String> ids = new ArrayList<>();
+            Long id;
+            while (ids.size() < 5 && (id = disposableMovies.pollFirst()) != null) {
+                ids.add(id.toString());
+            }
+            return ids.isEmpty() ? null : new Call(post("/movie/bulk/delete", "[" + String.join(",", ids) + "]"), null);
+        });
+        add("POST /movie/bulk/delete/filter", random -> {
+            String director = disposableDirectors.pollFirst();
+            return director == null ? null : new Call(post("/movie/bulk/delete/filter", "{\"director\":\"" + director + "\"}"), null);
+        });
+        add("GET /genre/all", random -> get("/genre/all"));
+        add("GET /genre/{id}", random -> get("/genre/" + genreIds[random.nextInt(genreIds.length)]));
+        add("POST /genre", random -> new Call(request("/genre").setHeader("Content-Type", "text/plain")
+                .POST(HttpRequest.BodyPublishers.ofString("lt-genre-" + sequence.incrementAndGet())).build(),
+                response -> createdId(response, disposableGenres)));
+        add("PUT /genre/{id}", random -> {
+            Long id = disposableGenres.pollLast();
+            if (id == null) {
+                return null;
+            }
+            return new Call(request("/genre/" + id).setHeader("Content-Type", "text/plain")
+                    .PUT(HttpRequest.BodyPublishers.ofString("lt-renamed-" + sequence.incrementAndGet())).build(),
+                    response -> disposableGenres.add(id));
+        });
+        add("DELETE /genre/{id}", random -> {
+            Long id = disposableGenres.pollFirst();
+            return id == null ? null : new Call(request("/genre/" + id).DELETE().build(), null);
+        });
+        add("POST /genre/bulk/delete", random -> {
+            Long id = disposableGenres.pollFirst();
+            return id == null ? null : new Call(post("/genre/bulk/delete", "[" + id + "]"), null);
+        });
+    }
+
+    private void add(String route, Function<ThreadLocalRandom, Call> call) {
+        operations.put(route, new Operation(route, call));
+    }
+
+    // "GET /movie/{id}=30,GET /genre/all=5": each entry is picked in proportion to its weight
+    private Operation[] weighted(String mix) {
+        List<Operation> picks = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            int split = entry.lastIndexOf('=');
+            String route = entry.substring(0, split).trim();
+            Operation operation = operations.get(route);
+            if (operation == null) {
+                throw new IllegalArgumentException("Unknown route in mix: " + route + ", known: " + operations.keySet());
+            }
+            for (int i = Integer.parseInt(entry.substring(split + 1).trim()); i > 0; i--) {
+                picks.add(operation);
+            }
+        }
+        if (picks.isEmpty()) {
+            throw new IllegalArgumentException("The mix has no weighted routes: " + mix);
+        }
+        return picks.toArray(Operation[]::new);
+    }
+
+    private String movieJson(ThreadLocalRandom random, String director) {
+        return "{\"title\":\"Loadtest movie " + sequence.incrementAndGet() + "\",\"director\":\"" + director
+                + "\",\"year\":" + (1950 + random.nextInt(70)) + ",\"genres\":\"" + genreName(random)
+                + "\",\"imdb\":\"" + (1 + random.nextInt(9)) + "." + random.nextInt(10) + "\"}";
+    }
+
+    private static void createdId(HttpResponse<String> response, ConcurrentLinkedDeque<Long> pool) {
+        response.headers().firstValue("Location").ifPresent(location -> {
+            Matcher matcher = CREATED_ID.matcher(location);
+            if (matcher.find()) {
+                pool.add(Long.parseLong(matcher.group(1)));
+            }
+        });
+    }
+
+    static List<Long> bulkIds(String body) {
+        List<Long> ids = new ArrayList<>();
+        Matcher matcher = BULK_IDS.matcher(body);
+        while (matcher.find()) {
+            ids.add(Long.parseLong(matcher.group(1)));
+        }
+        return ids;
+    }
+
+    private long movieId(ThreadLocalRandom random) {
+        return movieIds[random.nextInt(movieIds.length)];
+    }
+
+    private String genreName(ThreadLocalRandom random) {
+        return genreNames.get(random.nextInt(genreNames.size()));
+    }
+
+    private String director(ThreadLocalRandom random) {
+        return directors.get(random.nextInt(directors.size()));
+    }
+
+    private Call get(String path) {
+        return new Call(request(path).GET().build(), null);
+    }
+
+    private HttpRequest post(String path, String json) {
+        return request(path).POST(json(json)).build();
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json, application/x-ndjson");
+    }
+
+    private static HttpRequest.BodyPublisher json(String json) {
+        return HttpRequest.BodyPublishers.ofString(json);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -3,8 +3,14 @@ package org.app.movie;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
-@SpringBootApplication
+// R2DBC is only used for reads; its transaction manager would otherwise take the place of the JPA one,
+// and its ConnectionFactory bean would switch off the JDBC DataSource (see ReactiveDataConfig)
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
+@ConfigurationPropertiesScan
 public class MovieApplication {
 
     public static void main(String[] args) {
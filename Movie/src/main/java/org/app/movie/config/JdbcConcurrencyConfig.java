@@ -0,0 +1,33 @@
+package org.app.movie.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "movie.jdbc.limiter", name = "enabled", havingValue = "true")
+public class JdbcConcurrencyConfig {
+
+    // static and bound straight from the environment: post-processors are created before @ConfigurationProperties beans
+    @Bean
+    public static BeanPostProcessor jdbcConcurrencyLimiter(Environment environment) {
+        MovieProperties.Jdbc.Limiter limiter = Binder.get(environment)
+                .bind("movie.jdbc.limiter", Bindable.of(MovieProperties.Jdbc.Limiter.class))
+                .orElseGet(MovieProperties.Jdbc.Limiter::new);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    return new ConcurrencyLimitedDataSource(dataSource, limiter.getMaxConcurrency(), limiter.getAcquireTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,18 @@
+package org.app.movie.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    public static final String SERVICE_TIMER = "movie.service";
+
+    // backs @Timed on the service classes; each public method gets a timer tagged with class and method
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,117 @@
+package org.app.movie.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "movie")
+public class MovieProperties {
+
+    private Bulk bulk = new Bulk();
+    private Cache cache = new Cache();
+    private Search search = new Search();
+    private ResponseCache responseCache = new ResponseCache();
+    private Jdbc jdbc = new Jdbc();
+    private Sql sql = new Sql();
+
+    @Data
+    public static class Bulk {
+        // keep it a multiple of hibernate.jdbc.batch_size so every chunk flushes in full batches
+        private int chunkSize = 500;
+        private Coalescer coalescer = new Coalescer();
+
+        // single POST /movie creates queued up and committed together, see MovieWriteCoalescer
+        @Data
+        public static class Coalescer {
+            private boolean enabled = false;
+            // creates per transaction; same rule as chunkSize
+            private int batchSize = 100;
+            // how long the oldest queued create waits for company before its batch is written anyway
+            private Duration linger = Duration.ofMillis(5);
+            // creates waiting beyond this are turned away with 429
+            private int queueCapacity = 10_000;
+            // how long POST /movie waits for its batch to commit before answering 503
+            private Duration timeout = Duration.ofSeconds(30);
+        }
+    }
+
+    @Data
+    public static class Cache {
+        private SecondLevel secondLevel = new SecondLevel();
+
+        @Data
+        public static class SecondLevel {
+            private boolean enabled = false;
+            private long maximumSize = 10_000;
+            private Duration timeToLive = Duration.ofMinutes(10);
+        }
+    }
+
+    @Data
+    public static class Jdbc {
+        private Limiter limiter = new Limiter();
+
+        @Data
+        public static class Limiter {
+            private boolean enabled = false;
+            // keep it at or below the Hikari pool size
+            private int maxConcurrency = 50;
+            private Duration acquireTimeout = Duration.ofSeconds(5);
+        }
+    }
+
+    @Data
+    public static class Sql {
+        public enum BudgetMode {
+            OFF,
+            // over-budget calls are logged with their statement count
+            LOG,
+            // over-budget calls fail with SqlBudgetExceededException; meant for tests and staging
+            ENFORCE
+        }
+
+        private BudgetMode budgetMode = BudgetMode.LOG;
+        // the same SELECT this many times in one request is reported as a likely N+1
+        private int repeatedSelectThreshold = 5;
+    }
+
+    @Data
+    public static class ResponseCache {
+        private boolean enabled = true;
+        // total serialized + gzip bytes kept across all cached list responses
+        private DataSize maximumSize = DataSize.ofMegabytes(64);
+        // smaller bodies are sent as is; gzip framing would eat most of the saving
+        private DataSize compressionThreshold = DataSize.ofBytes(1024);
+    }
+
+    @Data
+    public static class Search {
+        public enum Engine {
+            JPA,
+            MEMORY
+        }
+
+        private Engine engine = Engine.JPA;
+        // below this many rows a scan stays on the calling thread; forking costs more than it saves
+        private int parallelThreshold = 50_000;
+        private GenreIndex genreIndex = new GenreIndex();
+        private ResultCache resultCache = new ResultCache();
+
+        @Data
+        public static class GenreIndex {
+            private boolean enabled = true;
+        }
+
+        // POST /movie/search results by normalized request, see SearchResultCache
+        @Data
+        public static class ResultCache {
+            private boolean enabled = true;
+            // estimated heap taken by the cached result lists
+            private DataSize maximumSize = DataSize.ofMegabytes(32);
+            private Duration timeToLive = Duration.ofMinutes(5);
+        }
+    }
+}
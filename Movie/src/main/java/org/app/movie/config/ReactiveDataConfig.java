@@ -0,0 +1,43 @@
+package org.app.movie.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+// the R2DBC pool stays private to the DatabaseClient: a ConnectionFactory bean in the context makes Boot's
+// DataSourceAutoConfiguration back off, and the JPA side needs its DataSource
+@Configuration
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReactiveDataConfig implements DisposableBean {
+
+    private ConnectionPool connectionPool;
+
+    @Bean
+    public DatabaseClient databaseClient(R2dbcProperties properties) {
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(properties.getUrl())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .build();
+        R2dbcProperties.Pool pool = properties.getPool();
+        connectionPool = new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(pool.getInitialSize())
+                .maxSize(pool.getMaxSize())
+                .maxIdleTime(pool.getMaxIdleTime())
+                .build());
+        return DatabaseClient.create(connectionPool);
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionPool != null) {
+            connectionPool.dispose();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.app.movie.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.OptionalLong;
+
+@Configuration
+@ConditionalOnProperty(prefix = "movie.cache.second-level", name = "enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+
+    public static final String GENRE_REGION = "genre";
+    public static final String MOVIE_GENRES_REGION = "movie-genres";
+    public static final String GENRE_QUERY_REGION = "genre-query";
+    public static final List<String> REGIONS = List.of(GENRE_REGION, MOVIE_GENRES_REGION, GENRE_QUERY_REGION);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(MovieProperties movieProperties) {
+        MovieProperties.Cache.SecondLevel secondLevel = movieProperties.getCache().getSecondLevel();
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(secondLevel.getMaximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(secondLevel.getTimeToLive().toNanos()));
+            configuration.setStatisticsEnabled(true);
+            if (cacheManager.getCache(region) == null) {
+                cacheManager.createCache(region, configuration);
+            }
+        }
+        return cacheManager;
+    }
+
+    // the update-timestamps region is left to the provider defaults: it must never expire or evict entries
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "create");
+            hibernateProperties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+}
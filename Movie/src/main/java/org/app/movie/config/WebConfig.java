@@ -0,0 +1,45 @@
+package org.app.movie.config;
+
+import lombok.RequiredArgsConstructor;
+import org.app.movie.format.ProtobufHttpMessageConverter;
+import org.app.movie.format.ResponseEncoder;
+import org.app.movie.format.ResponseFormat;
+import org.app.movie.sql.SqlStatementInterceptor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final SqlStatementInterceptor sqlStatementInterceptor;
+    private final ResponseEncoder responseEncoder;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(sqlStatementInterceptor);
+    }
+
+    // Spring adds its own CBOR/Smile converters when the jars are present, on a default ObjectMapper; these replace them.
+    // they go right after the JSON converter, so JSON stays the pick for */* and a missing Accept header
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        int json = 0;
+        while (json < converters.size() && !(converters.get(json) instanceof MappingJackson2HttpMessageConverter)) {
+            json++;
+        }
+        converters.addAll(Math.min(json + 1, converters.size()), List.of(
+                new MappingJackson2CborHttpMessageConverter(responseEncoder.objectMapper(ResponseFormat.CBOR)),
+                new MappingJackson2SmileHttpMessageConverter(responseEncoder.objectMapper(ResponseFormat.SMILE)),
+                new ProtobufHttpMessageConverter(responseEncoder.protobufSchemas())));
+    }
+}
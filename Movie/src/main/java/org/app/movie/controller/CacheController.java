@@ -0,0 +1,30 @@
+package org.app.movie.controller;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.app.movie.dto.response.CacheRegionStatisticsDto;
+import org.app.movie.service.CacheStatisticsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/cache")
+@RequiredArgsConstructor
+@Tag(name="Cache", description = "Cache API. Exposes hit/miss statistics of the Hibernate second-level cache and the search result cache")
+public class CacheController {
+    private final CacheStatisticsService cacheStatisticsService;
+
+    @GetMapping("/stats")
+    public ResponseEntity<List<CacheRegionStatisticsDto>> getSecondLevelCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getSecondLevelCacheStatistics());
+    }
+
+    @GetMapping("/search/stats")
+    public ResponseEntity<CacheRegionStatisticsDto> getSearchResultCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getSearchResultCacheStatistics());
+    }
+}
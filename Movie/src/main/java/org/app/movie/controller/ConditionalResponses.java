@@ -0,0 +1,89 @@
+package org.app.movie.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.app.movie.dto.response.CatalogVersion;
+import org.app.movie.format.ResponseFormat;
+import org.app.movie.service.SerializedResponseCache;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Locale;
+
+// conditional-GET and pre-serialized body helpers shared by the read endpoints
+final class ConditionalResponses {
+
+    private ConditionalResponses() {
+    }
+
+    // sets ETag/Last-Modified and, when the client's copy is current, turns the response into a 304
+    static boolean notModified(WebRequest webRequest, CatalogVersion version) {
+        vary(webRequest, HttpHeaders.ACCEPT);
+        return webRequest.checkNotModified(format(webRequest).etag(version.etag()), version.lastModified());
+    }
+
+    // gzip and identity bodies, like the encodings, are different representations, so they get different strong tags
+    static boolean notModified(WebRequest webRequest, CatalogVersion version, ResponseFormat format, boolean gzip) {
+        vary(webRequest, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        String etag = format.etag(version.etag());
+        return webRequest.checkNotModified(gzip ? etag + "-gzip" : etag, version.lastModified());
+    }
+
+    static ResponseFormat format(WebRequest webRequest) {
+        return ResponseFormat.negotiate(webRequest.getHeader(HttpHeaders.ACCEPT));
+    }
+
+    // gzip (or x-gzip), else a "*" wildcard, decides with its q-value; "gzip;q=0" means the client refuses it
+    static boolean acceptsGzip(WebRequest webRequest) {
+        String acceptEncoding = webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Double gzip = null;
+        Double wildcard = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (coding.equals("gzip") || coding.equals("x-gzip")) {
+                gzip = quality(parts);
+            } else if (coding.equals("*")) {
+                wildcard = quality(parts);
+            }
+        }
+        double quality = gzip != null ? gzip : wildcard != null ? wildcard : 0;
+        return quality > 0;
+    }
+
+    // a malformed q-value counts as 0, the identity body is always acceptable
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && Character.toLowerCase(parameter.charAt(0)) == 'q' && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    static ResponseEntity<byte[]> body(SerializedResponseCache.Entry entry, boolean gzip) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok().contentType(entry.format().mediaType());
+        if (gzip && entry.gzip() != null) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(entry.gzip());
+        }
+        return builder.body(entry.body());
+    }
+
+    private static void vary(WebRequest webRequest, String headers) {
+        if (webRequest instanceof NativeWebRequest nativeWebRequest) {
+            HttpServletResponse response = nativeWebRequest.getNativeResponse(HttpServletResponse.class);
+            if (response != null) {
+                response.addHeader(HttpHeaders.VARY, headers);
+            }
+        }
+    }
+}
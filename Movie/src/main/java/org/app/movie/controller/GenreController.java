@@ -1,11 +1,23 @@
 package org.app.movie.controller;
 
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.app.movie.dto.response.BulkDeleteResponseDto;
+import org.app.movie.dto.response.CatalogVersion;
 import org.app.movie.dto.response.GenreResponseDto;
+import org.app.movie.format.ResponseFormat;
+import org.app.movie.service.CatalogVersionService;
 import org.app.movie.service.GenreService;
+import org.app.movie.service.SerializedResponseCache;
+import org.app.movie.sql.SqlBudget;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.net.URI;
 import java.util.List;
@@ -16,15 +28,31 @@ import java.util.List;
 @Tag(name="Genre", description = "Genre API. Contains all operations that can be performed with genres")
 public class GenreController {
     private final GenreService genreService;
+    private final CatalogVersionService catalogVersionService;
+    private final SerializedResponseCache serializedResponseCache;
 
     @GetMapping("/all")
-    public ResponseEntity<List<GenreResponseDto>> getAllgenres() {
-       List<GenreResponseDto> genreResponseDtoList = genreService.getAllGenres();
-       return ResponseEntity.ok().body(genreResponseDtoList);
+    @SqlBudget(1)
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = GenreResponseDto.class))))
+    public ResponseEntity<byte[]> getAllgenres(WebRequest webRequest) {
+       CatalogVersion version = catalogVersionService.genres();
+       ResponseFormat format = ConditionalResponses.format(webRequest);
+       boolean gzip = ConditionalResponses.acceptsGzip(webRequest);
+       if (ConditionalResponses.notModified(webRequest, version, format, gzip)) {
+           return null;
+       }
+       SerializedResponseCache.Entry genres = serializedResponseCache.get(SerializedResponseCache.GENRES, "all",
+               version, format, genreService::getAllGenres);
+       return ConditionalResponses.body(genres, gzip);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<GenreResponseDto> getGenre(@PathVariable Long id) {
+    @SqlBudget(1)
+    public ResponseEntity<GenreResponseDto> getGenre(@PathVariable Long id, WebRequest webRequest) {
+        if (ConditionalResponses.notModified(webRequest, catalogVersionService.genre(id))) {
+            return null;
+        }
 
         GenreResponseDto genre = genreService.getGenre(id);
         return ResponseEntity.ok().body(genre);
@@ -39,6 +67,11 @@ public class GenreController {
     public ResponseEntity<GenreResponseDto> updateGenre(@PathVariable Long id, @RequestBody  String name) {
         return  ResponseEntity.ok(genreService.updateGenre(id, name));
     }
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkDeleteResponseDto> deleteGenres(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(genreService.deleteGenres(ids));
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<GenreResponseDto> deleteGenre(@PathVariable Long id) {
         return  ResponseEntity.ok(genreService.deleteGenre(id));
@@ -1,15 +1,32 @@
 package org.app.movie.controller;
 
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.app.movie.dto.request.MovieSearchRequest;
 import org.app.movie.dto.update.MovieUpdateDto;
 import org.app.movie.dto.request.MovieRequestDto;
+import org.app.movie.dto.response.BulkDeleteResponseDto;
+import org.app.movie.dto.response.BulkMovieResponseDto;
+import org.app.movie.dto.response.CatalogVersion;
+import org.app.movie.dto.response.MoviePageResponseDto;
 import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.dto.response.MovieSearchResponseDto;
+import org.app.movie.format.ResponseFormat;
+import org.app.movie.service.CatalogVersionService;
+import org.app.movie.service.MovieBulkService;
 import org.app.movie.service.MovieService;
+import org.app.movie.service.MovieWriteCoalescer;
+import org.app.movie.service.SerializedResponseCache;
+import org.app.movie.sql.SqlBudget;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.util.List;
@@ -20,30 +37,93 @@ import java.util.List;
 @Tag(name="Movie", description = "Movie API. Contains all operations that can be performed with movies")
 public class MovieController {
     private final MovieService movieService;
+    private final MovieBulkService movieBulkService;
+    private final CatalogVersionService catalogVersionService;
+    private final SerializedResponseCache serializedResponseCache;
+    private final MovieWriteCoalescer movieWriteCoalescer;
 
     @GetMapping("/all")
-    public ResponseEntity<List<MovieResponsetDto>> getAllMovies() {
-       List<MovieResponsetDto> movieResponsetDtoList = movieService.getAllMovies();
-       return ResponseEntity.ok().body(movieResponsetDtoList);
+    @SqlBudget(1)
+    @ApiResponse(responseCode = "200", content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+            schema = @Schema(implementation = MoviePageResponseDto.class)))
+    public ResponseEntity<byte[]> getAllMovies(@RequestParam(defaultValue = "0") Long after,
+                                               @RequestParam(defaultValue = "100") int limit,
+                                               WebRequest webRequest) {
+       CatalogVersion version = catalogVersionService.movies();
+       ResponseFormat format = ConditionalResponses.format(webRequest);
+       boolean gzip = ConditionalResponses.acceptsGzip(webRequest);
+       if (ConditionalResponses.notModified(webRequest, version, format, gzip)) {
+           return null;
+       }
+       SerializedResponseCache.Entry page = serializedResponseCache.get(SerializedResponseCache.MOVIES, after + ":" + limit,
+               version, format, () -> movieService.getAllMovies(after, limit));
+       return ConditionalResponses.body(page, gzip);
     }
 
     @GetMapping("/genre")
-    public ResponseEntity<List<MovieResponsetDto>> getByGenre(@RequestParam String genre) {
-        List<MovieResponsetDto> movieResponsetDtoList = movieService.getByGenre(genre);
-        return ResponseEntity.ok().body(movieResponsetDtoList);
+    @SqlBudget(1)
+    public ResponseEntity<MoviePageResponseDto> getByGenre(@RequestParam String genre,
+                                                           @RequestParam(defaultValue = "0") Long after,
+                                                           @RequestParam(defaultValue = "100") int limit,
+                                                           WebRequest webRequest) {
+        if (ConditionalResponses.notModified(webRequest, catalogVersionService.movies())) {
+            return null;
+        }
+        MoviePageResponseDto page = movieService.getByGenre(genre, after, limit);
+        return ResponseEntity.ok().body(page);
+    }
+
+    @GetMapping("/genres")
+    @SqlBudget(4)
+    public ResponseEntity<MoviePageResponseDto> getByGenres(@RequestParam(defaultValue = "") List<String> all,
+                                                            @RequestParam(defaultValue = "") List<String> any,
+                                                            @RequestParam(defaultValue = "") List<String> none,
+                                                            @RequestParam(defaultValue = "0") Long after,
+                                                            @RequestParam(defaultValue = "100") int limit,
+                                                            WebRequest webRequest) {
+        if (ConditionalResponses.notModified(webRequest, catalogVersionService.movies())) {
+            return null;
+        }
+        MoviePageResponseDto page = movieService.getByGenres(all, any, none, after, limit);
+        return ResponseEntity.ok().body(page);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportMovies() {
+        StreamingResponseBody body = movieService::exportMovies;
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<MovieResponsetDto> getMovie(@PathVariable Long id) {
+    @SqlBudget(1)
+    public ResponseEntity<MovieResponsetDto> getMovie(@PathVariable Long id, WebRequest webRequest) {
+        if (ConditionalResponses.notModified(webRequest, catalogVersionService.movie(id))) {
+            return null;
+        }
         MovieResponsetDto movie = movieService.getMovie(id);
         return ResponseEntity.ok().body(movie);
     }
     @PostMapping()
     public ResponseEntity<Void> addMovie(@RequestBody @Valid MovieRequestDto movieRequestDto) {
-        Long id = movieService.addMovie(movieRequestDto);
+        Long id = movieWriteCoalescer.isEnabled() ? movieWriteCoalescer.addMovie(movieRequestDto) : movieService.addMovie(movieRequestDto);
         return ResponseEntity.created(URI.create("movie/" + id)).build();
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkMovieResponseDto> addMovies(@RequestBody List<MovieRequestDto> movieRequestDtos) {
+        return ResponseEntity.ok(movieBulkService.addMovies(movieRequestDtos));
+    }
+
+    @PostMapping("/bulk/delete")
+    public ResponseEntity<BulkDeleteResponseDto> deleteMovies(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(movieBulkService.deleteMovies(ids));
+    }
+
+    @PostMapping("/bulk/delete/filter")
+    public ResponseEntity<BulkDeleteResponseDto> deleteMoviesByFilter(@RequestBody @Valid MovieSearchRequest filter) {
+        return ResponseEntity.ok(movieBulkService.deleteMovies(filter));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<MovieResponsetDto> updateMovie(@PathVariable Long id, @RequestBody @Valid MovieUpdateDto movieUpdateDto) {
         return  ResponseEntity.ok(movieService.updateMovie(id, movieUpdateDto));
@@ -54,10 +134,18 @@ public class MovieController {
     }
 
     @PostMapping("/search")
+    @SqlBudget(1)
     public ResponseEntity<List<MovieResponsetDto>> searchMovie(@RequestBody @Valid MovieSearchRequest movieSearchRequest) {
         return ResponseEntity.ok(movieService.searchMovie(movieSearchRequest));
     }
 
+    // same search plus movie counts per genre, decade and rating over the matches, for filter sidebars
+    @PostMapping(value = "/search", params = "facets=true")
+    @SqlBudget(3)
+    public ResponseEntity<MovieSearchResponseDto> searchMovieWithFacets(@RequestBody @Valid MovieSearchRequest movieSearchRequest) {
+        return ResponseEntity.ok(movieService.searchMovieWithFacets(movieSearchRequest));
+    }
+
 
 
 
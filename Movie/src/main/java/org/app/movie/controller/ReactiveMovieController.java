@@ -0,0 +1,45 @@
+package org.app.movie.controller;
+
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.service.ReactiveMovieService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// the servlet thread is handed back as soon as the publisher is returned. with Accept: application/x-ndjson each
+// movie is written as it arrives and rows are requested only as fast as the client reads; application/json gets one array
+@RestController
+@RequestMapping("/reactive/movie")
+@RequiredArgsConstructor
+@Tag(name="Reactive movie", description = "Non-blocking, streaming read API for movies")
+public class ReactiveMovieController {
+    private final ReactiveMovieService reactiveMovieService;
+
+    @GetMapping(value = "/all", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<MovieResponsetDto> getAllMovies(@RequestParam(defaultValue = "0") Long after,
+                                                @RequestParam(defaultValue = "100") int limit) {
+        return reactiveMovieService.getAllMovies(after, limit);
+    }
+
+    @GetMapping(value = "/genre", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<MovieResponsetDto> getByGenre(@RequestParam String genre,
+                                              @RequestParam(defaultValue = "0") Long after,
+                                              @RequestParam(defaultValue = "100") int limit) {
+        return reactiveMovieService.getByGenre(genre, after, limit);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<MovieResponsetDto> getMovie(@PathVariable Long id) {
+        return reactiveMovieService.getMovie(id);
+    }
+
+    @PostMapping(value = "/search", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public Flux<MovieResponsetDto> searchMovie(@RequestBody @Valid MovieSearchRequest movieSearchRequest) {
+        return reactiveMovieService.searchMovie(movieSearchRequest);
+    }
+}
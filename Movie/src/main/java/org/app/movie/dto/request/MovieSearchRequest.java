@@ -2,9 +2,15 @@ package org.app.movie.dto.request;
 
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import lombok.Builder;
 import lombok.Data;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
 @Data
 @Builder
 public class MovieSearchRequest {
@@ -14,4 +20,26 @@ public class MovieSearchRequest {
     private int beginyear;
     private int endyear;
     private String imdb;
+    // inclusive rating range, e.g. minImdb 7.5 for "7.5 and up"; movies without a numeric rating never match a range
+    @DecimalMin(value = "0.0", message = "IMDb rating bounds must be between 0.0 and 10.0")
+    @DecimalMax(value = "10.0", message = "IMDb rating bounds must be between 0.0 and 10.0")
+    private Double minImdb;
+    @DecimalMin(value = "0.0", message = "IMDb rating bounds must be between 0.0 and 10.0")
+    @DecimalMax(value = "10.0", message = "IMDb rating bounds must be between 0.0 and 10.0")
+    private Double maxImdb;
+    // free-text query over title and director; switches the search to ranked, typo-tolerant matching
+    private String query;
+    // top-k for ranked search
+    private int limit;
+
+    // the bounds as Movie.imdbScore values, rounded inwards so a bound between two scores keeps only ratings inside it
+    @JsonIgnore
+    public Short getMinImdbScore() {
+        return minImdb == null ? null : BigDecimal.valueOf(minImdb).scaleByPowerOfTen(1).setScale(0, RoundingMode.CEILING).shortValue();
+    }
+
+    @JsonIgnore
+    public Short getMaxImdbScore() {
+        return maxImdb == null ? null : BigDecimal.valueOf(maxImdb).scaleByPowerOfTen(1).setScale(0, RoundingMode.FLOOR).shortValue();
+    }
 }
@@ -0,0 +1,18 @@
+package org.app.movie.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkDeleteResponseDto {
+
+    private int total;
+    private int deleted;
+    private int notFound;
+    private int failed;
+    private long elapsedMillis;
+    private List<BulkDeleteResultDto> results;
+}
@@ -0,0 +1,13 @@
+package org.app.movie.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkDeleteResultDto {
+
+    private Long id;
+    private BulkItemStatus status;
+    private String error;
+}
@@ -0,0 +1,8 @@
+package org.app.movie.dto.response;
+
+public enum BulkItemStatus {
+    CREATED,
+    DELETED,
+    NOT_FOUND,
+    FAILED
+}
@@ -0,0 +1,18 @@
+package org.app.movie.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BulkMovieResponseDto {
+
+    private int total;
+    private int created;
+    private int failed;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<BulkMovieResultDto> results;
+}
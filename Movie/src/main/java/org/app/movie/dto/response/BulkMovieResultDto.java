@@ -0,0 +1,14 @@
+package org.app.movie.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class BulkMovieResultDto {
+
+    private int index;
+    private Long id;
+    private BulkItemStatus status;
+    private String error;
+}
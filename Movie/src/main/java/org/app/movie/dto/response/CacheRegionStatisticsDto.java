@@ -0,0 +1,18 @@
+package org.app.movie.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CacheRegionStatisticsDto {
+
+    private String region;
+    private long hitCount;
+    private long missCount;
+    private long putCount;
+    private double hitRatio;
+    // entries and estimated bytes held; -1 when the region can't tell
+    private long size;
+    private long estimatedBytes;
+}
@@ -0,0 +1,5 @@
+package org.app.movie.dto.response;
+
+// strong ETag (unquoted) and Last-Modified millis for a read endpoint
+public record CatalogVersion(String etag, long lastModified) {
+}
@@ -0,0 +1,21 @@
+package org.app.movie.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// matching movies counted per genre name, per decade (1990 = 1990..1999) and per whole imdb point (7 = 7.0..7.9).
+// movies without genres or without a numeric rating are left out of that facet
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieFacetsDto {
+
+    private Map<String, Long> genres;
+    private Map<Integer, Long> decades;
+    private Map<Integer, Long> ratings;
+}
@@ -0,0 +1,18 @@
+package org.app.movie.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MoviePageResponseDto {
+
+    private List<MovieResponsetDto> movies;
+    private Long nextCursor;
+}
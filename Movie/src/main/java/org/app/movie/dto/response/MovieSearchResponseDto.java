@@ -0,0 +1,19 @@
+package org.app.movie.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovieSearchResponseDto {
+
+    private List<MovieResponsetDto> movies;
+    // only filled when facets were asked for
+    private MovieFacetsDto facets;
+}
@@ -0,0 +1,18 @@
+package org.app.movie.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class GenreChangedEvent {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long id;
+    private final String name;
+}
@@ -0,0 +1,42 @@
+package org.app.movie.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.app.movie.model.Genre;
+import org.app.movie.model.Movie;
+
+import java.util.List;
+
+// published after a movie write has been committed; carries a detached snapshot so listeners never touch the session
+@Getter
+@AllArgsConstructor
+public class MovieChangedEvent {
+
+    public enum Type {
+        SAVED,
+        DELETED
+    }
+
+    private final Type type;
+    private final Long id;
+    private final Movie movie;
+
+    public static MovieChangedEvent saved(Movie movie) {
+        List<Genre> genres = movie.getGenres() == null ? List.of() : movie.getGenres().stream()
+                .map(genre -> Genre.builder().id(genre.getId()).name(genre.getName()).build())
+                .toList();
+        Movie snapshot = Movie.builder().
+                id(movie.getId()).
+                title(movie.getTitle()).
+                director(movie.getDirector()).
+                year(movie.getYear()).
+                imdb(movie.getImdb()).
+                genres(genres).
+                build();
+        return new MovieChangedEvent(Type.SAVED, movie.getId(), snapshot);
+    }
+
+    public static MovieChangedEvent deleted(Long id) {
+        return new MovieChangedEvent(Type.DELETED, id, null);
+    }
+}
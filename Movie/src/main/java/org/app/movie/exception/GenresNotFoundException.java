@@ -0,0 +1,16 @@
+package org.app.movie.exception;
+
+import lombok.Getter;
+import org.app.movie.model.Genre;
+
+import java.util.List;
+
+@Getter
+public class GenresNotFoundException extends NotFoundException {
+    private final List<String> names;
+
+    public GenresNotFoundException(List<String> names) {
+        super(Genre.class.getSimpleName());
+        this.names = names;
+    }
+}
@@ -2,6 +2,7 @@ package org.app.movie.exception;
 
 
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -32,6 +33,19 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
     }
 
+    @ExceptionHandler(GenresNotFoundException.class)
+    public ResponseEntity<ErrorResponseDto> handleGenresNotFoundException(GenresNotFoundException ex, WebRequest request){
+
+        ErrorResponseDto error = ErrorResponseDto.builder().
+                timestamp(OffsetDateTime.now()).
+                code(HttpStatus.NOT_FOUND.value()).
+                message("NOT FOUND EXCEPTION").
+                detail(ex.getEntityName().toUpperCase()+" NOT FOUND: "+String.join(", ", ex.getNames())).
+                path(((ServletWebRequest) request).getRequest().getRequestURI()).
+                build();
+        ex.getNames().forEach(name -> error.getData().put(name, "Genre not found"));
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+    }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponseDto> handleMethodArgumentNotValidException(
@@ -91,6 +105,33 @@ public class GlobalExceptionHandler {
 
         return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
     }
+    @ExceptionHandler(WriteQueueFullException.class)
+    public ResponseEntity<ErrorResponseDto> handleWriteQueueFullException(WriteQueueFullException ex, WebRequest request){
+
+        ErrorResponseDto error = ErrorResponseDto.builder().
+                timestamp(OffsetDateTime.now()).
+                code(HttpStatus.TOO_MANY_REQUESTS.value()).
+                message("Too many requests.").
+                detail(ex.getMessage()).
+                path(((ServletWebRequest) request).getRequest().getRequestURI()).
+                build();
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(error);
+    }
+    // the create may still commit after the caller gave up, so this is not a plain "retry later"
+    @ExceptionHandler(WriteTimeoutException.class)
+    public ResponseEntity<ErrorResponseDto> handleWriteTimeoutException(WriteTimeoutException ex, WebRequest request){
+
+        ErrorResponseDto error = ErrorResponseDto.builder().
+                timestamp(OffsetDateTime.now()).
+                code(HttpStatus.SERVICE_UNAVAILABLE.value()).
+                message("Write not confirmed.").
+                detail(ex.getMessage()).
+                path(((ServletWebRequest) request).getRequest().getRequestURI()).
+                build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+    }
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ResponseEntity<ErrorResponseDto> handleDataIntegrityViolationException(DataIntegrityViolationException ex, WebRequest request){
 
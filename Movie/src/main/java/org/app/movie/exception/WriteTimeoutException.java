@@ -0,0 +1,11 @@
+package org.app.movie.exception;
+
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class WriteTimeoutException extends RuntimeException {
+    private String message;
+}
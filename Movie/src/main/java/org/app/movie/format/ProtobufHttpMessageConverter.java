@@ -0,0 +1,58 @@
+package org.app.movie.format;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+// writes the DTOs that have a message in proto/movie.proto; request bodies stay JSON
+public class ProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final ProtobufSchemas protobufSchemas;
+
+    public ProtobufHttpMessageConverter(ProtobufSchemas protobufSchemas) {
+        super(ResponseFormat.PROTOBUF.mediaType());
+        this.protobufSchemas = protobufSchemas;
+    }
+
+    // a raw List says nothing about its elements; the typed canWrite below decides for those
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Collection.class.isAssignableFrom(clazz) || protobufSchemas.supports(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return canWrite(mediaType) && protobufSchemas.supports(type != null ? type : clazz);
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage) throws IOException {
+        outputMessage.getBody().write(protobufSchemas.write(body));
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+}
@@ -0,0 +1,98 @@
+package org.app.movie.format;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.dataformat.protobuf.ProtobufMapper;
+import com.fasterxml.jackson.dataformat.protobuf.schema.NativeProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchema;
+import com.fasterxml.jackson.dataformat.protobuf.schema.ProtobufSchemaLoader;
+import org.app.movie.dto.response.GenreResponseDto;
+import org.app.movie.dto.response.MoviePageResponseDto;
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.springframework.core.ResolvableType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.net.URL;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// response DTOs mapped onto the messages of proto/movie.proto. only the read shapes have a message;
+// other bodies are not offered as application/x-protobuf
+public class ProtobufSchemas {
+
+    static final String SCHEMA = "/proto/movie.proto";
+
+    private final ProtobufMapper protobufMapper = new ProtobufMapper();
+    private final Map<Class<?>, ProtobufSchema> messages;
+    private final Map<Class<?>, ProtobufSchema> lists;
+
+    // a bare list has no protobuf encoding, so it goes out as a message with one repeated field
+    record Items<T>(List<T> items) {
+    }
+
+    public ProtobufSchemas() {
+        NativeProtobufSchema schema = load();
+        messages = Map.of(
+                MovieResponsetDto.class, schema.forType("Movie"),
+                MoviePageResponseDto.class, schema.forType("MoviePage"),
+                GenreResponseDto.class, schema.forType("Genre"));
+        lists = Map.of(
+                MovieResponsetDto.class, schema.forType("MovieList"),
+                GenreResponseDto.class, schema.forType("GenreList"));
+    }
+
+    public boolean supports(Type type) {
+        ResolvableType resolved = ResolvableType.forType(type);
+        if (Collection.class.isAssignableFrom(resolved.toClass())) {
+            return lists.containsKey(resolved.asCollection().getGeneric().toClass());
+        }
+        return messages.containsKey(resolved.toClass());
+    }
+
+    public byte[] write(Object body) {
+        try {
+            if (body instanceof List<?> list) {
+                // an empty repeated field encodes to nothing, whatever its element type
+                if (list.isEmpty()) {
+                    return new byte[0];
+                }
+                return protobufMapper.writer(schema(lists, list.get(0).getClass())).writeValueAsBytes(new Items<>(list));
+            }
+            return protobufMapper.writer(schema(messages, body.getClass())).writeValueAsBytes(body);
+        } catch (IOException ex) {
+            throw new IllegalStateException("Response could not be serialized", ex);
+        }
+    }
+
+    public <T> T read(byte[] bytes, Class<T> type) throws IOException {
+        return protobufMapper.readerFor(type).with(schema(messages, type)).readValue(bytes);
+    }
+
+    public <T> List<T> readList(byte[] bytes, Class<T> elementType) throws IOException {
+        JavaType items = protobufMapper.getTypeFactory().constructParametricType(Items.class, elementType);
+        Items<T> result = protobufMapper.readerFor(items).with(schema(lists, elementType)).readValue(bytes);
+        return result == null || result.items() == null ? List.of() : result.items();
+    }
+
+    private static ProtobufSchema schema(Map<Class<?>, ProtobufSchema> schemas, Class<?> type) {
+        ProtobufSchema schema = schemas.get(type);
+        if (schema == null) {
+            throw new IllegalArgumentException("No protobuf message for " + type.getName() + " in " + SCHEMA);
+        }
+        return schema;
+    }
+
+    private static NativeProtobufSchema load() {
+        URL resource = ProtobufSchemas.class.getResource(SCHEMA);
+        if (resource == null) {
+            throw new IllegalStateException(SCHEMA + " is missing from the classpath");
+        }
+        try {
+            return ProtobufSchemaLoader.std.loadNative(resource);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
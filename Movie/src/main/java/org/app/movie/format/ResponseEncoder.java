@@ -0,0 +1,48 @@
+package org.app.movie.format;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// one encoder per ResponseFormat. the binary Jackson mappers are copies of the application's ObjectMapper, so CBOR and
+// Smile bodies carry the same properties as JSON; they are not beans, which would replace Boot's ObjectMapper
+@Component
+public class ResponseEncoder {
+
+    private final Map<ResponseFormat, ObjectMapper> objectMappers = new EnumMap<>(ResponseFormat.class);
+    private final ProtobufSchemas protobufSchemas = new ProtobufSchemas();
+
+    public ResponseEncoder(ObjectMapper objectMapper) {
+        objectMappers.put(ResponseFormat.JSON, objectMapper);
+        objectMappers.put(ResponseFormat.CBOR, objectMapper.copyWith(new CBORFactory()));
+        objectMappers.put(ResponseFormat.SMILE, objectMapper.copyWith(new SmileFactory()));
+    }
+
+    public byte[] encode(ResponseFormat format, Object body) {
+        if (format == ResponseFormat.PROTOBUF) {
+            return protobufSchemas.write(body);
+        }
+        try {
+            return objectMapper(format).writeValueAsBytes(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Response could not be serialized", ex);
+        }
+    }
+
+    public ObjectMapper objectMapper(ResponseFormat format) {
+        ObjectMapper objectMapper = objectMappers.get(format);
+        if (objectMapper == null) {
+            throw new IllegalArgumentException(format + " is not a Jackson format");
+        }
+        return objectMapper;
+    }
+
+    public ProtobufSchemas protobufSchemas() {
+        return protobufSchemas;
+    }
+}
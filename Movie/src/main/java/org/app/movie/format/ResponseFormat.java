@@ -0,0 +1,60 @@
+package org.app.movie.format;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+
+import java.util.Comparator;
+import java.util.List;
+
+// response encodings picked by the Accept header. JSON comes first, so */* and anything unknown stay on JSON
+public enum ResponseFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(new MediaType("application", "x-jackson-smile")),
+    PROTOBUF(new MediaType("application", "x-protobuf"));
+
+    private static final Comparator<MediaType> PREFERENCE = Comparator.comparingDouble(MediaType::getQualityValue).reversed()
+            .thenComparing(MediaType::isWildcardType)
+            .thenComparing(MediaType::isWildcardSubtype);
+
+    private final MediaType mediaType;
+
+    ResponseFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    // each representation needs its own strong ETag; JSON keeps the plain tag
+    public String etag(String etag) {
+        return this == JSON ? etag : etag + "-" + name().toLowerCase();
+    }
+
+    public static ResponseFormat negotiate(String accept) {
+        if (!StringUtils.hasText(accept)) {
+            return JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException ex) {
+            return JSON;
+        }
+        accepted.sort(PREFERENCE);
+        for (MediaType mediaType : accepted) {
+            if (mediaType.getQualityValue() == 0) {
+                continue;
+            }
+            for (ResponseFormat format : values()) {
+                if (mediaType.includes(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        return JSON;
+    }
+}
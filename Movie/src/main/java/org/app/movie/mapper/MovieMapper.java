@@ -4,6 +4,7 @@ import org.app.movie.dto.update.MovieUpdateDto;
 import org.app.movie.dto.request.MovieRequestDto;
 import org.app.movie.dto.response.MovieResponsetDto;
 import org.app.movie.model.Movie;
+import org.app.movie.repository.MovieTextSearchHit;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
@@ -15,6 +16,7 @@ public interface MovieMapper {
 
 //    @Mapping(target = "genres",ignore = true)
     MovieResponsetDto toDto(Movie movie);
+    MovieResponsetDto hitToDto(MovieTextSearchHit hit);
     @Mapping(target = "genres",ignore = true)
     Movie dtoToEntity(MovieRequestDto dto);
 
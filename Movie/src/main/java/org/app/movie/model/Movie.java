@@ -5,8 +5,12 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.FieldDefaults;
+import org.app.movie.config.SecondLevelCacheConfig;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
+import java.util.regex.Pattern;
 
 @Data
 @Builder
@@ -16,8 +20,11 @@ import java.util.List;
 @FieldDefaults(level = AccessLevel.PRIVATE)
 public class Movie {
 
+    private static final Pattern IMDB_RATING = Pattern.compile("\\d{1,2}(\\.\\d)?");
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "movie_seq")
+    @SequenceGenerator(name = "movie_seq", sequenceName = "movie_seq", allocationSize = 50)
     Long id;
     String title;
     String director;
@@ -28,8 +35,31 @@ public class Movie {
             joinColumns = @JoinColumn(name = "movie_id"),
             inverseJoinColumns = @JoinColumn(name = "genre_id")
     )
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.MOVIE_GENRES_REGION)
     @ToString.Exclude
     @JsonIgnore
     List<Genre> genres;
     String imdb;
+    // imdb * 10 ("7.6" -> 76) for range filters and rating facets; imdb stays the value handed back to clients.
+    // derived on every write, null when imdb isn't a plain rating
+    @Column(name = "imdb_score")
+    @JsonIgnore
+    Short imdbScore;
+
+    @PrePersist
+    @PreUpdate
+    void deriveImdbScore() {
+        imdbScore = imdbScore(imdb);
+    }
+
+    public static Short imdbScore(String imdb) {
+        if (imdb == null) {
+            return null;
+        }
+        String value = imdb.trim();
+        if (!IMDB_RATING.matcher(value).matches()) {
+            return null;
+        }
+        return (short) Math.round(Double.parseDouble(value) * 10);
+    }
 }
@@ -1,15 +1,40 @@
 package org.app.movie.repository;
 
+import jakarta.persistence.QueryHint;
+import org.app.movie.config.SecondLevelCacheConfig;
 import org.app.movie.model.Genre;
-import org.app.movie.model.Movie;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-import java.util.Optional;
+import java.util.Collection;
+import java.util.List;
 
 public interface GenreRepository extends JpaRepository<Genre, Long> {
 
-    @Query("SELECT g FROM Genre g where :name=g.name")
-    Optional<Genre> findByName(String name);
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.GENRE_QUERY_REGION)
+    })
+    List<Genre> findAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.GENRE_QUERY_REGION)
+    })
+    @Query("SELECT g FROM Genre g where g.name IN :names")
+    List<Genre> findByNameIn(Collection<String> names);
+
+    // genres at least one movie still points to; an EXISTS probe on movie_genre, the movies themselves are never loaded
+    @Query("SELECT g.id FROM Genre g WHERE g.id IN :ids AND EXISTS (SELECT 1 FROM Movie m JOIN m.genres mg WHERE mg.id = g.id)")
+    List<Long> findIdsInUse(Collection<Long> ids);
+
+    // Hibernate also clears movie_genre rows of deleted genres, so the in-use check is repeated here:
+    // a movie linked after findIdsInUse keeps its genre instead of silently losing it
+    @Modifying
+    @Query("DELETE FROM Genre g WHERE g.id IN :ids AND NOT EXISTS (SELECT 1 FROM Movie m JOIN m.genres mg WHERE mg.id = g.id)")
+    int deleteUnusedByIdIn(Collection<Long> ids);
 
 }
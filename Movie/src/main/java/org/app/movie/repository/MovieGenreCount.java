@@ -0,0 +1,5 @@
+package org.app.movie.repository;
+
+// matching movies in one genre
+public record MovieGenreCount(String genre, long count) {
+}
@@ -0,0 +1,5 @@
+package org.app.movie.repository;
+
+// one movie_genre row; genreId is null for a movie without genres
+public record MovieGenreLink(Long movieId, Long genreId) {
+}
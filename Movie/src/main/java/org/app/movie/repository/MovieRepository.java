@@ -1,27 +1,107 @@
 package org.app.movie.repository;
 
+import jakarta.persistence.QueryHint;
+import org.app.movie.dto.response.MovieResponsetDto;
 import org.app.movie.model.Movie;
-import org.springframework.data.jpa.domain.Specification;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface MovieRepository extends JpaRepository<Movie, Long> {
+public interface MovieRepository extends JpaRepository<Movie, Long>, MovieRepositoryCustom {
 
     @EntityGraph(attributePaths = {"genres"})
     Optional<Movie> findById(Long id);
 
-    @Query("SELECT m FROM Movie m JOIN FETCH m.genres")
-    List<Movie> findAll();
+    @Query("SELECT new org.app.movie.dto.response.MovieResponsetDto(m.id, m.title, m.director, m.year, " +
+            "listagg(g.name, ',') WITHIN GROUP (ORDER BY g.name), m.imdb) " +
+            "FROM Movie m LEFT JOIN m.genres g WHERE m.id = :id " +
+            "GROUP BY m.id, m.title, m.director, m.year, m.imdb")
+    Optional<MovieResponsetDto> findDtoById(Long id);
 
-    @Query("SELECT m FROM Movie m JOIN FETCH m.genres g WHERE g.name = :genre")
-    List<Movie> findByGenre(String genre);
+    @Query("SELECT new org.app.movie.dto.response.MovieResponsetDto(m.id, m.title, m.director, m.year, " +
+            "listagg(g.name, ',') WITHIN GROUP (ORDER BY g.name), m.imdb) " +
+            "FROM Movie m LEFT JOIN m.genres g WHERE m.id > :after " +
+            "GROUP BY m.id, m.title, m.director, m.year, m.imdb ORDER BY m.id")
+    List<MovieResponsetDto> findPageAfter(Long after, Limit limit);
 
-    List<Movie> findAll(Specification<Movie> movieSpecification);
+    @Query("SELECT new org.app.movie.dto.response.MovieResponsetDto(m.id, m.title, m.director, m.year, " +
+            "listagg(g.name, ',') WITHIN GROUP (ORDER BY g.name), m.imdb) " +
+            "FROM Movie m LEFT JOIN m.genres g WHERE m.id > :after " +
+            "AND m.id IN (SELECT gm.id FROM Movie gm JOIN gm.genres gg WHERE gg.name = :genre) " +
+            "GROUP BY m.id, m.title, m.director, m.year, m.imdb ORDER BY m.id")
+    List<MovieResponsetDto> findPageByGenreAfter(String genre, Long after, Limit limit);
+
+    @Query("SELECT new org.app.movie.dto.response.MovieResponsetDto(m.id, m.title, m.director, m.year, " +
+            "listagg(g.name, ',') WITHIN GROUP (ORDER BY g.name), m.imdb) " +
+            "FROM Movie m LEFT JOIN m.genres g WHERE m.id IN :ids " +
+            "GROUP BY m.id, m.title, m.director, m.year, m.imdb ORDER BY m.id")
+    List<MovieResponsetDto> findDtosByIds(Collection<Long> ids);
+
+    @Query("SELECT m.id FROM Movie m WHERE m.id IN :ids")
+    List<Long> findExistingIds(Collection<Long> ids);
+
+    // Hibernate clears the owned movie_genre rows with one set-based DELETE before deleting the movies.
+    // managed instances are not touched, so callers don't keep deleted movies around in the same context
+    @Modifying
+    @Query("DELETE FROM Movie m WHERE m.id IN :ids")
+    int deleteByIdIn(Collection<Long> ids);
+
+    // ranked fuzzy search backed by the pg_trgm and tsvector GIN indexes created in V3__search_indexes.sql
+    @Query(nativeQuery = true, value = """
+            SELECT m.id AS id, m.title AS title, m.director AS director, m.year AS year, m.imdb AS imdb,
+                   string_agg(g.name, ',' ORDER BY g.name) AS genre, ranked.score AS score
+            FROM (
+                SELECT mv.id,
+                       GREATEST(word_similarity(:query, mv.title), word_similarity(:query, mv.director))
+                           + ts_rank(to_tsvector('simple', coalesce(mv.title, '') || ' ' || coalesce(mv.director, '')),
+                                     to_tsquery('simple', :prefixQuery)) AS score
+                FROM movie mv
+                WHERE (:query <% mv.title
+                       OR :query <% mv.director
+                       OR to_tsvector('simple', coalesce(mv.title, '') || ' ' || coalesce(mv.director, ''))
+                              @@ to_tsquery('simple', :prefixQuery))
+                  AND (CAST(:title AS varchar) IS NULL OR mv.title = :title)
+                  AND (CAST(:director AS varchar) IS NULL OR mv.director = :director)
+                  AND (:beginYear = 0 OR mv.year >= :beginYear)
+                  AND (:endYear = 0 OR mv.year <= :endYear)
+                  AND (CAST(:imdb AS varchar) IS NULL OR mv.imdb = :imdb)
+                  AND (:minImdbScore < 0 OR mv.imdb_score >= :minImdbScore)
+                  AND (:maxImdbScore < 0 OR mv.imdb_score <= :maxImdbScore)
+                ORDER BY score DESC, mv.id
+                LIMIT :limit
+            ) ranked
+            JOIN movie m ON m.id = ranked.id
+            LEFT JOIN movie_genre mg ON mg.movie_id = m.id
+            LEFT JOIN genre g ON g.id = mg.genre_id
+            GROUP BY m.id, m.title, m.director, m.year, m.imdb, ranked.score
+            ORDER BY ranked.score DESC, m.id
+            """)
+    List<MovieTextSearchHit> searchText(String query, String prefixQuery, String title, String director,
+                                        int beginYear, int endYear, String imdb, int minImdbScore, int maxImdbScore, int limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM Movie m LEFT JOIN FETCH m.genres ORDER BY m.id")
+    Stream<Movie> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new org.app.movie.repository.MovieGenreLink(m.id, g.id) FROM Movie m LEFT JOIN m.genres g")
+    Stream<MovieGenreLink> streamGenreLinks();
 
 }
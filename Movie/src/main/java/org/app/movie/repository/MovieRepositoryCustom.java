@@ -0,0 +1,23 @@
+package org.app.movie.repository;
+
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.model.Movie;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface MovieRepositoryCustom {
+
+    List<MovieResponsetDto> findDtos(Specification<Movie> movieSpecification);
+
+    List<MovieResponsetDto> findDtos(Specification<Movie> movieSpecification, Limit limit);
+
+    // ids matching the specification above the cursor, ascending
+    List<Long> findIds(Specification<Movie> movieSpecification, Long after, Limit limit);
+
+    // search facets, grouped in the database: one row per distinct (year, imdb_score) and one per genre of the matching movies
+    List<MovieYearRatingCount> countByYearAndRating(Specification<Movie> movieSpecification);
+
+    List<MovieGenreCount> countByGenre(Specification<Movie> movieSpecification);
+}
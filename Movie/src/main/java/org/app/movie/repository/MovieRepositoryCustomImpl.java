@@ -0,0 +1,102 @@
+package org.app.movie.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.model.Genre;
+import org.app.movie.model.Movie;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+@RequiredArgsConstructor
+public class MovieRepositoryCustomImpl implements MovieRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<MovieResponsetDto> findDtos(Specification<Movie> movieSpecification) {
+        return findDtos(movieSpecification, Limit.unlimited());
+    }
+
+    @Override
+    public List<MovieResponsetDto> findDtos(Specification<Movie> movieSpecification, Limit limit) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<MovieResponsetDto> query = cb.createQuery(MovieResponsetDto.class);
+        Root<Movie> root = query.from(Movie.class);
+        Join<Movie, Genre> genres = root.join("genres", JoinType.LEFT);
+
+        query.select(cb.construct(MovieResponsetDto.class,
+                root.get("id"),
+                root.get("title"),
+                root.get("director"),
+                root.get("year"),
+                cb.listagg(cb.asc(genres.get("name")), genres.get("name"), ","),
+                root.get("imdb")));
+        Predicate predicate = movieSpecification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(root.get("id"), root.get("title"), root.get("director"), root.get("year"), root.get("imdb"));
+        query.orderBy(cb.asc(root.get("id")));
+        TypedQuery<MovieResponsetDto> typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<Long> findIds(Specification<Movie> movieSpecification, Long after, Limit limit) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Movie> root = query.from(Movie.class);
+        query.select(root.get("id"));
+        Predicate predicate = cb.greaterThan(root.get("id"), after);
+        Predicate filter = movieSpecification.toPredicate(root, query, cb);
+        query.where(filter != null ? cb.and(predicate, filter) : predicate);
+        query.orderBy(cb.asc(root.get("id")));
+        TypedQuery<Long> typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<MovieYearRatingCount> countByYearAndRating(Specification<Movie> movieSpecification) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<MovieYearRatingCount> query = cb.createQuery(MovieYearRatingCount.class);
+        Root<Movie> root = query.from(Movie.class);
+        query.select(cb.construct(MovieYearRatingCount.class, root.get("year"), root.get("imdbScore"), cb.count(root)));
+        Predicate predicate = movieSpecification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(root.get("year"), root.get("imdbScore"));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<MovieGenreCount> countByGenre(Specification<Movie> movieSpecification) {
+        HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+        CriteriaQuery<MovieGenreCount> query = cb.createQuery(MovieGenreCount.class);
+        Root<Movie> root = query.from(Movie.class);
+        Join<Movie, Genre> genres = root.join("genres");
+        query.select(cb.construct(MovieGenreCount.class, genres.get("name"), cb.count(root)));
+        Predicate predicate = movieSpecification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.groupBy(genres.get("name"));
+        return entityManager.createQuery(query).getResultList();
+    }
+}
@@ -0,0 +1,18 @@
+package org.app.movie.repository;
+
+public interface MovieTextSearchHit {
+
+    Long getId();
+
+    String getTitle();
+
+    String getDirector();
+
+    Integer getYear();
+
+    String getGenre();
+
+    String getImdb();
+
+    Double getScore();
+}
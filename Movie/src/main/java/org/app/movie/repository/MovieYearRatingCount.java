@@ -0,0 +1,5 @@
+package org.app.movie.repository;
+
+// matching movies sharing one year and one imdb_score; the decade and rating facets are folded from these
+public record MovieYearRatingCount(int year, Short imdbScore, long count) {
+}
@@ -0,0 +1,110 @@
+package org.app.movie.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// R2DBC twin of the MovieRepository DTO projections; same grouping, same id order
+@Repository
+@RequiredArgsConstructor
+public class ReactiveMovieRepository {
+
+    // rows are pulled from the server in batches as the subscriber asks for more
+    private static final int FETCH_SIZE = 500;
+
+    private static final String SELECT_DTO = """
+            SELECT m.id, m.title, m.director, m.year, m.imdb, string_agg(g.name, ',' ORDER BY g.name) AS genre
+            FROM movie m
+            LEFT JOIN movie_genre mg ON mg.movie_id = m.id
+            LEFT JOIN genre g ON g.id = mg.genre_id
+            """;
+    private static final String GROUP_BY = " GROUP BY m.id, m.title, m.director, m.year, m.imdb ORDER BY m.id";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<MovieResponsetDto> findDtoById(Long id) {
+        return databaseClient.sql(SELECT_DTO + "WHERE m.id = :id" + GROUP_BY)
+                .bind("id", id)
+                .map(ReactiveMovieRepository::toDto)
+                .one();
+    }
+
+    public Flux<MovieResponsetDto> findPageAfter(Long after, int limit) {
+        return databaseClient.sql(SELECT_DTO + "WHERE m.id > :after" + GROUP_BY + " LIMIT :limit")
+                .bind("after", after)
+                .bind("limit", limit)
+                .map(ReactiveMovieRepository::toDto)
+                .all();
+    }
+
+    public Flux<MovieResponsetDto> findPageByGenreAfter(String genre, Long after, int limit) {
+        return databaseClient.sql(SELECT_DTO + "WHERE m.id > :after AND m.id IN (SELECT gm.movie_id FROM movie_genre gm " +
+                        "JOIN genre gg ON gg.id = gm.genre_id WHERE gg.name = :genre)" + GROUP_BY + " LIMIT :limit")
+                .bind("after", after)
+                .bind("genre", genre)
+                .bind("limit", limit)
+                .map(ReactiveMovieRepository::toDto)
+                .all();
+    }
+
+    public Flux<MovieResponsetDto> search(MovieSearchRequest searchRequest) {
+        Map<String, Object> bindings = new LinkedHashMap<>();
+        String where = searchWhere(searchRequest, bindings);
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(SELECT_DTO + where + GROUP_BY)
+                .filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)));
+        for (Map.Entry<String, Object> binding : bindings.entrySet()) {
+            spec = spec.bind(binding.getKey(), binding.getValue());
+        }
+        return spec.map(ReactiveMovieRepository::toDto).all();
+    }
+
+    // SQL form of MovieService.specMovie, clause for clause
+    public static String searchWhere(MovieSearchRequest searchRequest, Map<String, Object> bindings) {
+        List<String> clauses = new ArrayList<>();
+        if (searchRequest.getTitle() != null) {
+            clauses.add("m.title = :title");
+            bindings.put("title", searchRequest.getTitle());
+        }
+        if (searchRequest.getDirector() != null) {
+            clauses.add("m.director = :director");
+            bindings.put("director", searchRequest.getDirector());
+        }
+        if (searchRequest.getBeginyear() != 0) {
+            clauses.add("m.year >= :beginYear");
+            bindings.put("beginYear", searchRequest.getBeginyear());
+        }
+        if (searchRequest.getEndyear() != 0) {
+            clauses.add("m.year <= :endYear");
+            bindings.put("endYear", searchRequest.getEndyear());
+        }
+        if (searchRequest.getImdb() != null) {
+            clauses.add("m.imdb = :imdb");
+            bindings.put("imdb", searchRequest.getImdb());
+        }
+        if (searchRequest.getMinImdbScore() != null) {
+            clauses.add("m.imdb_score >= :minImdbScore");
+            bindings.put("minImdbScore", searchRequest.getMinImdbScore());
+        }
+        if (searchRequest.getMaxImdbScore() != null) {
+            clauses.add("m.imdb_score <= :maxImdbScore");
+            bindings.put("maxImdbScore", searchRequest.getMaxImdbScore());
+        }
+        return clauses.isEmpty() ? "" : "WHERE " + String.join(" AND ", clauses);
+    }
+
+    private static MovieResponsetDto toDto(Readable row) {
+        Integer year = row.get("year", Integer.class);
+        return new MovieResponsetDto(row.get("id", Long.class), row.get("title", String.class), row.get("director", String.class),
+                year == null ? 0 : year, row.get("genre", String.class), row.get("imdb", String.class));
+    }
+}
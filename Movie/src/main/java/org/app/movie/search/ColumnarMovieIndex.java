@@ -0,0 +1,430 @@
+package org.app.movie.search;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.dto.response.MovieSearchResponseDto;
+import org.app.movie.event.GenreChangedEvent;
+import org.app.movie.event.MovieChangedEvent;
+import org.app.movie.model.Genre;
+import org.app.movie.model.Movie;
+import org.app.movie.repository.GenreRepository;
+import org.app.movie.repository.MovieRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// column-wise copy of the catalog for /movie/search. one row per movie, every attribute in its own primitive array,
+// so a filter is a loop over a few int/short arrays instead of a query. kept current by MovieChangedEvent/GenreChangedEvent
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ColumnarMovieIndex {
+
+    static final short NO_RATING = -1;
+    private static final int INITIAL_CAPACITY = 1024;
+    // tombstoned rows and orphaned dictionary values are reclaimed once they pass a quarter of the rows
+    private static final int COMPACTION_MIN_GARBAGE = 256;
+    private static final int COMPACTION_GARBAGE_DIVISOR = 4;
+    private static final long[] NO_GENRES = new long[0];
+
+    private final MovieRepository movieRepository;
+    private final GenreRepository genreRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final MovieProperties movieProperties;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final StringDictionary titles = new StringDictionary();
+    private final StringDictionary directors = new StringDictionary();
+    // original imdb strings: matched exactly like title and director, and handed back as stored
+    private final StringDictionary imdbs = new StringDictionary();
+    private final Map<Long, String> genreNames = new HashMap<>();
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] years = new int[INITIAL_CAPACITY];
+    // rating * 10, e.g. "7.6" -> 76
+    private short[] ratings = new short[INITIAL_CAPACITY];
+    private int[] titleCodes = new int[INITIAL_CAPACITY];
+    private int[] directorCodes = new int[INITIAL_CAPACITY];
+    private int[] imdbCodes = new int[INITIAL_CAPACITY];
+    private long[][] genreIds = new long[INITIAL_CAPACITY][];
+    private boolean[] deleted = new boolean[INITIAL_CAPACITY];
+    private int rowCount;
+    private volatile boolean ready;
+
+    public boolean isEnabled() {
+        return movieProperties.getSearch().getEngine() == MovieProperties.Search.Engine.MEMORY;
+    }
+
+    public boolean isReady() {
+        return ready && isEnabled();
+    }
+
+    // free-text queries stay on the database path
+    public boolean supports(MovieSearchRequest searchRequest) {
+        return !StringUtils.hasText(searchRequest.getQuery());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        // writers wait for the load so no event can be applied to rows the snapshot is about to overwrite
+        lock.writeLock().lock();
+        try {
+            clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                genreRepository.findAll().forEach(genre -> genreNames.put(genre.getId(), genre.getName()));
+                try (Stream<Movie> movies = movieRepository.streamAll()) {
+                    movies.forEach(movie -> {
+                        upsert(movie);
+                        entityManager.detach(movie);
+                    });
+                }
+            });
+            ready = true;
+            log.info("Columnar movie index loaded {} movies in {} ms", rowsById.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException ex) {
+            clear();
+            log.error("Columnar movie index could not be loaded, search stays on the database", ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == MovieChangedEvent.Type.DELETED) {
+                Integer row = rowsById.remove(event.getId());
+                if (row != null) {
+                    deleted[row] = true;
+                }
+            } else {
+                upsert(event.getMovie());
+            }
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onGenreChanged(GenreChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == GenreChangedEvent.Type.DELETED) {
+                genreNames.remove(event.getId());
+            } else {
+                genreNames.put(event.getId(), event.getName());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<MovieResponsetDto> search(MovieSearchRequest searchRequest) {
+        lock.readLock().lock();
+        try {
+            return toDtos(matches(searchRequest));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // the facets are counted from the matched rows' year, rating and genre columns, next to building the result
+    public MovieSearchResponseDto searchWithFacets(MovieSearchRequest searchRequest) {
+        lock.readLock().lock();
+        try {
+            int[] matches = matches(searchRequest);
+            Map<Long, Long> genreCounts = new HashMap<>();
+            FacetCounter facets = new FacetCounter();
+            for (int row : matches) {
+                facets.year(years[row], 1).rating(ratings[row], 1);
+                for (long genreId : genreIds[row]) {
+                    genreCounts.merge(genreId, 1L, Long::sum);
+                }
+            }
+            genreCounts.forEach((genreId, count) -> {
+                String name = genreNames.get(genreId);
+                if (name != null) {
+                    facets.genre(name, count);
+                }
+            });
+            return MovieSearchResponseDto.builder().movies(toDtos(matches)).facets(facets.toDto()).build();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rowsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // live and tombstoned rows, i.e. what a scan walks through
+    int rowCount() {
+        lock.readLock().lock();
+        try {
+            return rowCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int[] matches(MovieSearchRequest searchRequest) {
+        Filter filter = toFilter(searchRequest);
+        if (filter == null) {
+            return new int[0];
+        }
+        int threshold = Math.max(movieProperties.getSearch().getParallelThreshold(), 1);
+        return rowCount > threshold
+                ? ForkJoinPool.commonPool().invoke(new ScanTask(filter, 0, rowCount, threshold))
+                : scan(filter, 0, rowCount);
+    }
+
+    // null means a predicate value doesn't occur in the catalog at all, so nothing can match
+    private Filter toFilter(MovieSearchRequest searchRequest) {
+        int titleCode = StringDictionary.ABSENT;
+        if (searchRequest.getTitle() != null) {
+            titleCode = titles.codeOf(searchRequest.getTitle());
+            if (titleCode == StringDictionary.ABSENT) {
+                return null;
+            }
+        }
+        int directorCode = StringDictionary.ABSENT;
+        if (searchRequest.getDirector() != null) {
+            directorCode = directors.codeOf(searchRequest.getDirector());
+            if (directorCode == StringDictionary.ABSENT) {
+                return null;
+            }
+        }
+        int fromYear = searchRequest.getBeginyear() != 0 ? searchRequest.getBeginyear() : Integer.MIN_VALUE;
+        int toYear = searchRequest.getEndyear() != 0 ? searchRequest.getEndyear() : Integer.MAX_VALUE;
+        // exact string like specMovie, so "7" and "7.0" are different values on both engines
+        int imdbCode = StringDictionary.ABSENT;
+        if (searchRequest.getImdb() != null) {
+            imdbCode = imdbs.codeOf(searchRequest.getImdb());
+            if (imdbCode == StringDictionary.ABSENT) {
+                return null;
+            }
+        }
+        short minRating = searchRequest.getMinImdbScore() != null ? searchRequest.getMinImdbScore() : NO_RATING;
+        short maxRating = searchRequest.getMaxImdbScore() != null ? searchRequest.getMaxImdbScore() : NO_RATING;
+        return new Filter(titleCode, directorCode, fromYear, toYear, imdbCode, minRating, maxRating);
+    }
+
+    private int[] scan(Filter filter, int from, int to) {
+        int[] matches = new int[Math.min(to - from, 64)];
+        int count = 0;
+        for (int row = from; row < to; row++) {
+            if (deleted[row]
+                    || years[row] < filter.fromYear() || years[row] > filter.toYear()
+                    || (filter.titleCode() != StringDictionary.ABSENT && titleCodes[row] != filter.titleCode())
+                    || (filter.directorCode() != StringDictionary.ABSENT && directorCodes[row] != filter.directorCode())
+                    || (filter.imdbCode() != StringDictionary.ABSENT && imdbCodes[row] != filter.imdbCode())
+                    || (filter.minRating() != NO_RATING && (ratings[row] == NO_RATING || ratings[row] < filter.minRating()))
+                    || (filter.maxRating() != NO_RATING && (ratings[row] == NO_RATING || ratings[row] > filter.maxRating()))) {
+                continue;
+            }
+            if (count == matches.length) {
+                matches = Arrays.copyOf(matches, Math.min(matches.length * 2, to - from));
+            }
+            matches[count++] = row;
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private List<MovieResponsetDto> toDtos(int[] matches) {
+        // same order as the database path
+        long[] matchedIds = new long[matches.length];
+        for (int i = 0; i < matches.length; i++) {
+            matchedIds[i] = ids[matches[i]];
+        }
+        Arrays.sort(matchedIds);
+        List<MovieResponsetDto> dtos = new ArrayList<>(matches.length);
+        for (long id : matchedIds) {
+            int row = rowsById.get(id);
+            dtos.add(new MovieResponsetDto(id, titles.decode(titleCodes[row]), directors.decode(directorCodes[row]),
+                    years[row], genresAsString(genreIds[row]), imdbs.decode(imdbCodes[row])));
+        }
+        return dtos;
+    }
+
+    private String genresAsString(long[] rowGenreIds) {
+        return Arrays.stream(rowGenreIds)
+                .mapToObj(genreNames::get)
+                .filter(Objects::nonNull)
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
+    // updates in place so a movie keeps its row; new movies are appended
+    private void upsert(Movie movie) {
+        Integer row = rowsById.get(movie.getId());
+        if (row == null) {
+            ensureCapacity(rowCount + 1);
+            row = rowCount++;
+            rowsById.put(movie.getId(), row);
+        }
+        ids[row] = movie.getId();
+        years[row] = movie.getYear();
+        ratings[row] = movie.getImdb() != null ? parseRating(movie.getImdb()) : NO_RATING;
+        titleCodes[row] = titles.encode(movie.getTitle());
+        directorCodes[row] = directors.encode(movie.getDirector());
+        imdbCodes[row] = imdbs.encode(movie.getImdb());
+        genreIds[row] = movie.getGenres() == null ? NO_GENRES : movie.getGenres().stream().mapToLong(Genre::getId).toArray();
+        deleted[row] = false;
+        for (Genre genre : movie.getGenres() == null ? List.<Genre>of() : movie.getGenres()) {
+            genreNames.putIfAbsent(genre.getId(), genre.getName());
+        }
+    }
+
+    // deletes only tombstone a row and updates can orphan dictionary values; once enough of either piles up
+    // the live rows are copied into fresh columns and dictionaries, in their current order
+    private void compactIfNeeded() {
+        int live = rowsById.size();
+        int orphanedValues = Math.max(Math.max(titles.size(), directors.size()), imdbs.size()) - live;
+        int garbage = Math.max(rowCount - live, orphanedValues);
+        if (garbage < Math.max(COMPACTION_MIN_GARBAGE, rowCount / COMPACTION_GARBAGE_DIVISOR)) {
+            return;
+        }
+        int capacity = Math.max(INITIAL_CAPACITY, live);
+        long[] liveIds = new long[capacity];
+        int[] liveYears = new int[capacity];
+        short[] liveRatings = new short[capacity];
+        String[] liveTitles = new String[live];
+        String[] liveDirectors = new String[live];
+        String[] liveImdbs = new String[live];
+        long[][] liveGenreIds = new long[capacity][];
+        int next = 0;
+        for (int row = 0; row < rowCount; row++) {
+            if (deleted[row]) {
+                continue;
+            }
+            liveIds[next] = ids[row];
+            liveYears[next] = years[row];
+            liveRatings[next] = ratings[row];
+            liveTitles[next] = titles.decode(titleCodes[row]);
+            liveDirectors[next] = directors.decode(directorCodes[row]);
+            liveImdbs[next] = imdbs.decode(imdbCodes[row]);
+            liveGenreIds[next] = genreIds[row];
+            rowsById.put(ids[row], next);
+            next++;
+        }
+        titles.clear();
+        directors.clear();
+        imdbs.clear();
+        ids = liveIds;
+        years = liveYears;
+        ratings = liveRatings;
+        genreIds = liveGenreIds;
+        titleCodes = new int[capacity];
+        directorCodes = new int[capacity];
+        imdbCodes = new int[capacity];
+        deleted = new boolean[capacity];
+        for (int row = 0; row < live; row++) {
+            titleCodes[row] = titles.encode(liveTitles[row]);
+            directorCodes[row] = directors.encode(liveDirectors[row]);
+            imdbCodes[row] = imdbs.encode(liveImdbs[row]);
+        }
+        log.debug("Columnar movie index compacted {} rows into {}", rowCount, live);
+        rowCount = live;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, newCapacity);
+        years = Arrays.copyOf(years, newCapacity);
+        ratings = Arrays.copyOf(ratings, newCapacity);
+        titleCodes = Arrays.copyOf(titleCodes, newCapacity);
+        directorCodes = Arrays.copyOf(directorCodes, newCapacity);
+        imdbCodes = Arrays.copyOf(imdbCodes, newCapacity);
+        genreIds = Arrays.copyOf(genreIds, newCapacity);
+        deleted = Arrays.copyOf(deleted, newCapacity);
+    }
+
+    private void clear() {
+        ready = false;
+        rowsById.clear();
+        genreNames.clear();
+        titles.clear();
+        directors.clear();
+        imdbs.clear();
+        Arrays.fill(deleted, 0, rowCount, false);
+        rowCount = 0;
+    }
+
+    static short parseRating(String imdb) {
+        Short score = Movie.imdbScore(imdb);
+        return score == null ? NO_RATING : score;
+    }
+
+    private record Filter(int titleCode, int directorCode, int fromYear, int toYear, int imdbCode, short minRating, short maxRating) {
+    }
+
+    private class ScanTask extends RecursiveTask<int[]> {
+
+        private final Filter filter;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        ScanTask(Filter filter, int from, int to, int threshold) {
+            this.filter = filter;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= threshold) {
+                return scan(filter, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(filter, from, middle, threshold);
+            left.fork();
+            int[] right = new ScanTask(filter, middle, to, threshold).compute();
+            int[] leftMatches = left.join();
+            int[] merged = Arrays.copyOf(leftMatches, leftMatches.length + right.length);
+            System.arraycopy(right, 0, merged, leftMatches.length, right.length);
+            return merged;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package org.app.movie.search;
+
+import org.app.movie.dto.response.MovieFacetsDto;
+import org.app.movie.dto.response.MovieResponsetDto;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// adds up the search facets from whatever a search path has at hand: database group counts, index rows or result dtos
+public class FacetCounter {
+
+    private final Map<String, Long> genres = new TreeMap<>();
+    private final Map<Integer, Long> decades = new TreeMap<>();
+    private final Map<Integer, Long> ratings = new TreeMap<>();
+
+    public FacetCounter genre(String name, long count) {
+        genres.merge(name, count, Long::sum);
+        return this;
+    }
+
+    public FacetCounter year(int year, long count) {
+        decades.merge(Math.floorDiv(year, 10) * 10, count, Long::sum);
+        return this;
+    }
+
+    // rating * 10 as kept by ColumnarMovieIndex
+    public FacetCounter rating(short rating, long count) {
+        if (rating != ColumnarMovieIndex.NO_RATING) {
+            ratings.merge(rating / 10, count, Long::sum);
+        }
+        return this;
+    }
+
+    public FacetCounter imdbScore(Short imdbScore, long count) {
+        return imdbScore == null ? this : rating(imdbScore, count);
+    }
+
+    public FacetCounter imdb(String imdb, long count) {
+        return imdb == null ? this : rating(ColumnarMovieIndex.parseRating(imdb), count);
+    }
+
+    public FacetCounter movie(MovieResponsetDto movie) {
+        year(movie.getYear(), 1);
+        imdb(movie.getImdb(), 1);
+        if (movie.getGenre() != null) {
+            for (String name : movie.getGenre().split(",")) {
+                if (!name.isEmpty()) {
+                    genre(name, 1);
+                }
+            }
+        }
+        return this;
+    }
+
+    public MovieFacetsDto toDto() {
+        return MovieFacetsDto.builder().genres(genres).decades(decades).ratings(ratings).build();
+    }
+}
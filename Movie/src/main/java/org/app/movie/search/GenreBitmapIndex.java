@@ -0,0 +1,162 @@
+package org.app.movie.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.event.GenreChangedEvent;
+import org.app.movie.event.MovieChangedEvent;
+import org.app.movie.model.Genre;
+import org.app.movie.repository.MovieGenreLink;
+import org.app.movie.repository.MovieRepository;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// one compressed bitmap of movie ids per genre id, so multi-genre filters are set operations instead of joins.
+// movie ids come from movie_seq and are kept as ints here
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class GenreBitmapIndex {
+
+    private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+    private final MovieRepository movieRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MovieProperties movieProperties;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, RoaringBitmap> moviesByGenre = new HashMap<>();
+    // every movie, genres or not; the universe for NOT-only queries
+    private final RoaringBitmap allMovies = new RoaringBitmap();
+    private volatile boolean ready;
+
+    public boolean isEnabled() {
+        return movieProperties.getSearch().getGenreIndex().isEnabled();
+    }
+
+    public boolean isReady() {
+        return ready && isEnabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            clear();
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<MovieGenreLink> links = movieRepository.streamGenreLinks()) {
+                    links.forEach(link -> {
+                        int movieId = Math.toIntExact(link.movieId());
+                        allMovies.add(movieId);
+                        if (link.genreId() != null) {
+                            moviesByGenre.computeIfAbsent(link.genreId(), genreId -> new RoaringBitmap()).add(movieId);
+                        }
+                    });
+                }
+            });
+            moviesByGenre.values().forEach(RoaringBitmap::runOptimize);
+            allMovies.runOptimize();
+            ready = true;
+            log.info("Genre bitmap index loaded {} movies over {} genres in {} ms",
+                    allMovies.getCardinality(), moviesByGenre.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException ex) {
+            clear();
+            log.error("Genre bitmap index could not be loaded, genre queries stay on the database", ex);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        int movieId = Math.toIntExact(event.getId());
+        lock.writeLock().lock();
+        try {
+            // a movie's old genres aren't in the event; there are few genres, so clear it from all of them
+            moviesByGenre.values().forEach(bitmap -> bitmap.remove(movieId));
+            if (event.getType() == MovieChangedEvent.Type.DELETED) {
+                allMovies.remove(movieId);
+                return;
+            }
+            allMovies.add(movieId);
+            for (Genre genre : event.getMovie().getGenres()) {
+                moviesByGenre.computeIfAbsent(genre.getId(), genreId -> new RoaringBitmap()).add(movieId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onGenreChanged(GenreChangedEvent event) {
+        if (!isEnabled() || event.getType() != GenreChangedEvent.Type.DELETED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            moviesByGenre.remove(event.getId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ids of movies in every genre of all, at least one of any (when given) and none of none, ascending, after the cursor
+    public List<Long> query(Collection<Long> all, Collection<Long> any, Collection<Long> none, long after, int limit) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = all.isEmpty() ? allMovies.clone() : FastAggregation.and(bitmaps(all));
+            if (!any.isEmpty()) {
+                result.and(FastAggregation.or(bitmaps(any)));
+            }
+            if (!none.isEmpty()) {
+                result.andNot(FastAggregation.or(bitmaps(none)));
+            }
+            return page(result, after, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap[] bitmaps(Collection<Long> genreIds) {
+        return genreIds.stream().map(genreId -> moviesByGenre.getOrDefault(genreId, EMPTY)).toArray(RoaringBitmap[]::new);
+    }
+
+    private List<Long> page(RoaringBitmap result, long after, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, result.getCardinality()));
+        if (after >= Integer.MAX_VALUE) {
+            return ids;
+        }
+        PeekableIntIterator iterator = result.getIntIterator();
+        iterator.advanceIfNeeded((int) Math.max(after + 1, 0));
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add((long) iterator.next());
+        }
+        return ids;
+    }
+
+    private void clear() {
+        ready = false;
+        moviesByGenre.clear();
+        allMovies.clear();
+    }
+}
@@ -0,0 +1,47 @@
+package org.app.movie.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// dictionary encoding for low-cardinality string columns: each distinct value is stored once, rows keep an int code.
+// not thread-safe on its own, ColumnarMovieIndex guards it with its lock
+class StringDictionary {
+
+    static final int ABSENT = -1;
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+        if (value == null) {
+            return ABSENT;
+        }
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            values.add(value);
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    int codeOf(String value) {
+        Integer code = codes.get(value);
+        return code == null ? ABSENT : code;
+    }
+
+    String decode(int code) {
+        return code == ABSENT ? null : values.get(code);
+    }
+
+    void clear() {
+        codes.clear();
+        values.clear();
+    }
+
+    int size() {
+        return values.size();
+    }
+}
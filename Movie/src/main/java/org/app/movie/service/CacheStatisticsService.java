@@ -0,0 +1,53 @@
+package org.app.movie.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.config.SecondLevelCacheConfig;
+import org.app.movie.dto.response.CacheRegionStatisticsDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsService {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final MovieProperties movieProperties;
+    private final SearchResultCache searchResultCache;
+
+    public List<CacheRegionStatisticsDto> getSecondLevelCacheStatistics() {
+        if (!movieProperties.getCache().getSecondLevel().isEnabled()) {
+            return List.of();
+        }
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<CacheRegionStatisticsDto> regions = new ArrayList<>();
+        for (String region : SecondLevelCacheConfig.REGIONS) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics == null) {
+                continue;
+            }
+            long hits = regionStatistics.getHitCount();
+            long misses = regionStatistics.getMissCount();
+            regions.add(CacheRegionStatisticsDto.builder().
+                    region(region).
+                    hitCount(hits).
+                    missCount(misses).
+                    putCount(regionStatistics.getPutCount()).
+                    hitRatio(hits + misses == 0 ? 0 : (double) hits / (hits + misses)).
+                    size(regionStatistics.getElementCountInMemory()).
+                    estimatedBytes(regionStatistics.getSizeInMemory()).
+                    build());
+        }
+        return regions;
+    }
+
+    public CacheRegionStatisticsDto getSearchResultCacheStatistics() {
+        return searchResultCache.statistics();
+    }
+}
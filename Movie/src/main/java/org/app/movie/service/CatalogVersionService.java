@@ -0,0 +1,112 @@
+package org.app.movie.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.app.movie.dto.response.CatalogVersion;
+import org.app.movie.event.GenreChangedEvent;
+import org.app.movie.event.MovieChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// in-memory change counters behind the ETag/Last-Modified headers of the read endpoints.
+// counters restart with the instance, so every tag carries the instance epoch and an old tag can never match again.
+// controllers read the version before loading data: a write in between only costs one extra 200, never a wrong 304
+@Service
+public class CatalogVersionService {
+
+    // per-id versions kept in memory; ids beyond that fall back to the newest version evicted so far
+    static final int TRACKED_IDS = 100_000;
+
+    private final long startedAt = System.currentTimeMillis();
+    private final String epoch = Long.toString(startedAt, 36);
+
+    private final AtomicLong movieVersion = new AtomicLong();
+    private final AtomicLong genreVersion = new AtomicLong();
+    private volatile long moviesModified = startedAt;
+    private volatile long genresModified = startedAt;
+    private final EntityVersions movieVersions;
+    private final EntityVersions genreVersions;
+
+    public CatalogVersionService() {
+        this(TRACKED_IDS);
+    }
+
+    CatalogVersionService(int trackedIds) {
+        this.movieVersions = new EntityVersions(trackedIds, startedAt);
+        this.genreVersions = new EntityVersions(trackedIds, startedAt);
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        long now = System.currentTimeMillis();
+        movieVersions.changed(event.getId(), movieVersion.incrementAndGet(), now);
+        moviesModified = now;
+    }
+
+    // movie payloads embed genre names, so a genre change also invalidates every movie tag
+    @EventListener
+    public void onGenreChanged(GenreChangedEvent event) {
+        long now = System.currentTimeMillis();
+        genreVersions.changed(event.getId(), genreVersion.incrementAndGet(), now);
+        genresModified = now;
+    }
+
+    public CatalogVersion movies() {
+        return new CatalogVersion(epoch + "-m" + movieVersion.get() + "-g" + genreVersion.get(),
+                Math.max(moviesModified, genresModified));
+    }
+
+    public CatalogVersion movie(Long id) {
+        EntityVersion version = movieVersions.get(id);
+        return new CatalogVersion(epoch + "-m" + id + "." + version.version() + "-g" + genreVersion.get(),
+                Math.max(version.lastModified(), genresModified));
+    }
+
+    public CatalogVersion genres() {
+        return new CatalogVersion(epoch + "-g" + genreVersion.get(), genresModified);
+    }
+
+    public CatalogVersion genre(Long id) {
+        EntityVersion version = genreVersions.get(id);
+        return new CatalogVersion(epoch + "-g" + id + "." + version.version(), version.lastModified());
+    }
+
+    // an id's version is the collection version of its last write. an evicted id answers with the newest evicted
+    // version instead, which is at least its own last one and above anything it was tagged with before that write,
+    // so eviction can cost an extra 200 but never a wrong 304
+    private static final class EntityVersions {
+
+        private final Cache<Long, EntityVersion> versions;
+        private final AtomicReference<EntityVersion> evicted;
+
+        EntityVersions(int trackedIds, long startedAt) {
+            this.evicted = new AtomicReference<>(new EntityVersion(0, startedAt));
+            this.versions = Caffeine.newBuilder()
+                    .maximumSize(trackedIds)
+                    .executor(Runnable::run)
+                    .evictionListener((Long id, EntityVersion version, RemovalCause cause) ->
+                            evicted.accumulateAndGet(version, EntityVersion::max))
+                    .build();
+        }
+
+        void changed(Long id, long version, long lastModified) {
+            versions.asMap().merge(id, new EntityVersion(version, lastModified), EntityVersion::max);
+        }
+
+        EntityVersion get(Long id) {
+            EntityVersion version = versions.getIfPresent(id);
+            return version != null ? version : evicted.get();
+        }
+    }
+
+    private record EntityVersion(long version, long lastModified) {
+
+        EntityVersion max(EntityVersion other) {
+            return new EntityVersion(Math.max(version, other.version()), Math.max(lastModified, other.lastModified()));
+        }
+    }
+}
@@ -1,25 +1,48 @@
 package org.app.movie.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.app.movie.config.MetricsConfig;
 import lombok.extern.slf4j.Slf4j;
+import org.app.movie.dto.response.BulkDeleteResponseDto;
+import org.app.movie.dto.response.BulkDeleteResultDto;
+import org.app.movie.dto.response.BulkItemStatus;
 import org.app.movie.dto.response.GenreResponseDto;
+import org.app.movie.event.GenreChangedEvent;
 import org.app.movie.exception.DataNotDeleteableException;
+import org.app.movie.exception.GenresNotFoundException;
 import org.app.movie.exception.NotFoundException;
 import org.app.movie.mapper.GenreMapper;
 import org.app.movie.model.Genre;
 import org.app.movie.repository.GenreRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 @Slf4j
 public class GenreService {
 
     private final GenreRepository genreRepository;
     private final GenreMapper genreMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    // lowercased name -> detached id/name snapshot; genres are few and rarely change
+    private final Map<String, Genre> genreCache = new ConcurrentHashMap<>();
 
     public List<GenreResponseDto> getAllGenres() {
         List<Genre> genres = genreRepository.findAll();
@@ -31,25 +54,114 @@ public class GenreService {
         return genreMapper.toDto(genre);
     }
 
+    public List<Genre> findAllByNames(List<String> names) {
+        List<String> keys = names.stream().map(String::toLowerCase).distinct().toList();
+        Map<String, Genre> found = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String key : keys) {
+            Genre cached = genreCache.get(key);
+            if (cached != null) {
+                found.put(key, cached);
+            } else {
+                misses.add(key);
+            }
+        }
+        if (!misses.isEmpty()) {
+            for (Genre genre : genreRepository.findByNameIn(misses)) {
+                Genre snapshot = snapshot(genre);
+                genreCache.put(genre.getName().toLowerCase(), snapshot);
+                found.put(genre.getName().toLowerCase(), snapshot);
+            }
+        }
+        List<String> missing = keys.stream().filter(key -> !found.containsKey(key)).toList();
+        if (!missing.isEmpty()) {
+            throw new GenresNotFoundException(missing);
+        }
+        return keys.stream().map(found::get).toList();
+    }
+
     public Long addGenre(String name) {
         Genre genre = Genre.builder().name(name.toLowerCase()).build();
         Genre save = genreRepository.save(genre);
+        genreCache.put(save.getName(), snapshot(save));
+        eventPublisher.publishEvent(new GenreChangedEvent(GenreChangedEvent.Type.SAVED, save.getId(), save.getName()));
         return save.getId();
     }
 
     public GenreResponseDto updateGenre(Long id, String name) {
         Genre genre = genreRepository.findById(id).orElseThrow(()-> new NotFoundException(Genre.class.getSimpleName()));
+        String oldName = genre.getName();
         genre.setName(name);
         genreRepository.save(genre);
+        evict(oldName);
+        evict(name);
+        eventPublisher.publishEvent(new GenreChangedEvent(GenreChangedEvent.Type.SAVED, id, name));
         return genreMapper.toDto(genre);
     }
 
     public GenreResponseDto deleteGenre(Long id) {
         Genre genre = genreRepository.findById(id).orElseThrow(()-> new NotFoundException(Genre.class.getSimpleName()));
-        if(!genre.getMovies().isEmpty()){
+        if(!genreRepository.findIdsInUse(List.of(id)).isEmpty()){
             throw new DataNotDeleteableException("Cannot delete this genre because there are movies associated with it.");
         }
         genreRepository.delete(genre);
+        evict(genre.getName());
+        eventPublisher.publishEvent(new GenreChangedEvent(GenreChangedEvent.Type.DELETED, id, genre.getName()));
         return genreMapper.toDto(genre);
     }
+
+    // genres still used by a movie are reported as failed; the rest go in one DELETE
+    public BulkDeleteResponseDto deleteGenres(List<Long> ids) {
+        long start = System.nanoTime();
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<BulkDeleteResultDto> results = new ArrayList<>(distinct.size());
+        if (distinct.isEmpty()) {
+            return MovieBulkService.deleteResponse(results, start);
+        }
+        Set<Long> inUse = new HashSet<>();
+        try {
+            Map<Long, Genre> deleted = transactionTemplate.execute(status -> {
+                Map<Long, Genre> existing = new HashMap<>();
+                genreRepository.findAllById(distinct).forEach(genre -> existing.put(genre.getId(), snapshot(genre)));
+                if (!existing.isEmpty()) {
+                    inUse.addAll(genreRepository.findIdsInUse(existing.keySet()));
+                }
+                existing.keySet().removeAll(inUse);
+                if (!existing.isEmpty() && genreRepository.deleteUnusedByIdIn(existing.keySet()) != existing.size()) {
+                    throw new IllegalStateException("Movies were linked to these genres while they were being deleted");
+                }
+                return existing;
+            });
+            for (Long id : distinct) {
+                BulkDeleteResultDto.BulkDeleteResultDtoBuilder result = BulkDeleteResultDto.builder().id(id);
+                if (deleted.containsKey(id)) {
+                    result.status(BulkItemStatus.DELETED);
+                } else if (inUse.contains(id)) {
+                    result.status(BulkItemStatus.FAILED).error("Cannot delete this genre because there are movies associated with it.");
+                } else {
+                    result.status(BulkItemStatus.NOT_FOUND);
+                }
+                results.add(result.build());
+            }
+            deleted.values().forEach(genre -> {
+                evict(genre.getName());
+                eventPublisher.publishEvent(new GenreChangedEvent(GenreChangedEvent.Type.DELETED, genre.getId(), genre.getName()));
+            });
+        } catch (RuntimeException ex) {
+            log.warn("Bulk delete of {} genres rolled back", distinct.size(), ex);
+            String error = "Rolled back: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            distinct.forEach(id -> results.add(BulkDeleteResultDto.builder().id(id).status(BulkItemStatus.FAILED).error(error).build()));
+        }
+        return MovieBulkService.deleteResponse(results, start);
+    }
+
+    private void evict(String name) {
+        if (name != null) {
+            genreCache.remove(name.toLowerCase());
+        }
+    }
+
+    private Genre snapshot(Genre genre) {
+        return Genre.builder().id(genre.getId()).name(genre.getName()).build();
+    }
 }
@@ -0,0 +1,208 @@
+package org.app.movie.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.dto.request.MovieRequestDto;
+import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.dto.response.BulkDeleteResponseDto;
+import org.app.movie.dto.response.BulkDeleteResultDto;
+import org.app.movie.dto.response.BulkItemStatus;
+import org.app.movie.dto.response.BulkMovieResponseDto;
+import org.app.movie.dto.response.BulkMovieResultDto;
+import org.app.movie.event.MovieChangedEvent;
+import org.app.movie.exception.GenresNotFoundException;
+import org.app.movie.mapper.MovieMapper;
+import org.app.movie.model.Genre;
+import org.app.movie.model.Movie;
+import org.app.movie.repository.MovieRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MovieBulkService {
+
+    private final MovieRepository movieRepository;
+    private final GenreService genreService;
+    private final MovieMapper movieMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final MovieProperties movieProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BulkMovieResponseDto addMovies(List<MovieRequestDto> movieRequestDtos) {
+        long start = System.nanoTime();
+        BulkMovieResultDto[] results = new BulkMovieResultDto[movieRequestDtos.size()];
+        int chunkSize = Math.max(movieProperties.getBulk().getChunkSize(), 1);
+        for (int from = 0; from < movieRequestDtos.size(); from += chunkSize) {
+            insertChunk(movieRequestDtos, from, Math.min(from + chunkSize, movieRequestDtos.size()), results);
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        int created = (int) Arrays.stream(results).filter(result -> result.getStatus() == BulkItemStatus.CREATED).count();
+        double seconds = elapsedNanos / 1_000_000_000d;
+        return BulkMovieResponseDto.builder().
+                total(results.length).
+                created(created).
+                failed(results.length - created).
+                elapsedMillis(elapsedNanos / 1_000_000).
+                rowsPerSecond(seconds > 0 ? created / seconds : 0).
+                results(Arrays.asList(results)).
+                build();
+    }
+
+    private void insertChunk(List<MovieRequestDto> movieRequestDtos, int from, int to, BulkMovieResultDto[] results) {
+        List<Integer> indexes = new ArrayList<>();
+        List<Movie> movies = new ArrayList<>();
+        for (int index = from; index < to; index++) {
+            MovieRequestDto dto = movieRequestDtos.get(index);
+            Set<ConstraintViolation<MovieRequestDto>> violations = validator.validate(dto);
+            if (!violations.isEmpty()) {
+                String error = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                results[index] = failed(index, error);
+                continue;
+            }
+            List<Genre> genreList;
+            try {
+                genreList = genreService.findAllByNames(MovieService.parseGenreNames(dto.getGenres()));
+            } catch (GenresNotFoundException ex) {
+                results[index] = failed(index, "Genre not found: " + String.join(", ", ex.getNames()));
+                continue;
+            }
+            Movie movie = movieMapper.dtoToEntity(dto);
+            movie.setGenres(genreList);
+            movies.add(movie);
+            indexes.add(index);
+        }
+        if (movies.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Movie> saved = insertAll(movies);
+            for (int i = 0; i < indexes.size(); i++) {
+                int index = indexes.get(i);
+                results[index] = BulkMovieResultDto.builder().index(index).id(saved.get(i).getId()).status(BulkItemStatus.CREATED).build();
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Bulk insert chunk [{}, {}) rolled back", from, to, ex);
+            indexes.forEach(index -> results[index] = failed(index, "Chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage()));
+        }
+    }
+
+    // one transaction and batched inserts for all of them; saved movies come back in input order.
+    // throws when the transaction rolls back, in which case nothing was written
+    public List<Movie> insertAll(List<Movie> movies) {
+        List<Movie> saved = transactionTemplate.execute(status -> {
+            List<Movie> persisted = movieRepository.saveAll(movies);
+            entityManager.flush();
+            entityManager.clear();
+            return persisted;
+        });
+        saved.forEach(movie -> eventPublisher.publishEvent(MovieChangedEvent.saved(movie)));
+        return saved;
+    }
+
+    public BulkDeleteResponseDto deleteMovies(List<Long> ids) {
+        long start = System.nanoTime();
+        List<Long> distinct = ids.stream().filter(Objects::nonNull).distinct().toList();
+        List<BulkDeleteResultDto> results = new ArrayList<>(distinct.size());
+        int chunkSize = Math.max(movieProperties.getBulk().getChunkSize(), 1);
+        for (int from = 0; from < distinct.size(); from += chunkSize) {
+            deleteChunk(distinct.subList(from, Math.min(from + chunkSize, distinct.size())), results);
+        }
+        return deleteResponse(results, start);
+    }
+
+    // walks the matching ids in keyset pages and deletes each page like an id list
+    public BulkDeleteResponseDto deleteMovies(MovieSearchRequest filter) {
+        if (StringUtils.hasText(filter.getQuery())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Free-text query can't be used to delete movies");
+        }
+        if (filter.getTitle() == null && filter.getDirector() == null && filter.getImdb() == null
+                && filter.getBeginyear() == 0 && filter.getEndyear() == 0
+                && filter.getMinImdb() == null && filter.getMaxImdb() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "At least one filter is required");
+        }
+        long start = System.nanoTime();
+        Specification<Movie> specification = MovieService.specMovie(filter);
+        int chunkSize = Math.max(movieProperties.getBulk().getChunkSize(), 1);
+        List<BulkDeleteResultDto> results = new ArrayList<>();
+        long after = 0;
+        List<Long> page;
+        do {
+            page = movieRepository.findIds(specification, after, Limit.of(chunkSize));
+            if (!page.isEmpty()) {
+                deleteChunk(page, results);
+                after = page.get(page.size() - 1);
+            }
+        } while (page.size() == chunkSize);
+        return deleteResponse(results, start);
+    }
+
+    // one transaction per chunk: which ids exist, then a single DELETE for their join rows and one for the movies
+    private void deleteChunk(List<Long> ids, List<BulkDeleteResultDto> results) {
+        try {
+            List<Long> deleted = transactionTemplate.execute(status -> {
+                List<Long> existing = movieRepository.findExistingIds(ids);
+                if (!existing.isEmpty()) {
+                    movieRepository.deleteByIdIn(existing);
+                }
+                return existing;
+            });
+            Set<Long> deletedIds = new HashSet<>(deleted);
+            for (Long id : ids) {
+                results.add(BulkDeleteResultDto.builder().id(id)
+                        .status(deletedIds.contains(id) ? BulkItemStatus.DELETED : BulkItemStatus.NOT_FOUND).build());
+            }
+            deleted.forEach(id -> eventPublisher.publishEvent(MovieChangedEvent.deleted(id)));
+        } catch (RuntimeException ex) {
+            log.warn("Bulk delete chunk of {} movies rolled back", ids.size(), ex);
+            String error = "Chunk rolled back: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+            ids.forEach(id -> results.add(BulkDeleteResultDto.builder().id(id).status(BulkItemStatus.FAILED).error(error).build()));
+        }
+    }
+
+    static BulkDeleteResponseDto deleteResponse(List<BulkDeleteResultDto> results, long start) {
+        return BulkDeleteResponseDto.builder().
+                total(results.size()).
+                deleted(count(results, BulkItemStatus.DELETED)).
+                notFound(count(results, BulkItemStatus.NOT_FOUND)).
+                failed(count(results, BulkItemStatus.FAILED)).
+                elapsedMillis((System.nanoTime() - start) / 1_000_000).
+                results(results).
+                build();
+    }
+
+    private static int count(List<BulkDeleteResultDto> results, BulkItemStatus status) {
+        return (int) results.stream().filter(result -> result.getStatus() == status).count();
+    }
+
+    private BulkMovieResultDto failed(int index, String error) {
+        return BulkMovieResultDto.builder().index(index).status(BulkItemStatus.FAILED).error(error).build();
+    }
+}
@@ -1,87 +1,142 @@
 package org.app.movie.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.criteria.*;
 import lombok.RequiredArgsConstructor;
+import org.app.movie.config.MetricsConfig;
 import org.app.movie.dto.request.MovieSearchRequest;
 import org.app.movie.dto.update.MovieUpdateDto;
 import org.app.movie.dto.request.MovieRequestDto;
+import org.app.movie.dto.response.MoviePageResponseDto;
 import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.dto.response.MovieSearchResponseDto;
+import org.app.movie.event.MovieChangedEvent;
 import org.app.movie.exception.NotFoundException;
 import org.app.movie.mapper.MovieMapper;
 import org.app.movie.model.Genre;
 import org.app.movie.model.Movie;
-import org.app.movie.repository.GenreRepository;
 import org.app.movie.repository.MovieRepository;
+import org.app.movie.search.ColumnarMovieIndex;
+import org.app.movie.search.FacetCounter;
+import org.app.movie.search.GenreBitmapIndex;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
+@Timed(MetricsConfig.SERVICE_TIMER)
 public class MovieService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int DEFAULT_SEARCH_LIMIT = 20;
+    private static final int MAX_SEARCH_LIMIT = 100;
+
     private final MovieRepository movieRepository;
-    private final GenreRepository genreRepository;
+    private final GenreService genreService;
     private final MovieMapper movieMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ColumnarMovieIndex columnarMovieIndex;
+    private final GenreBitmapIndex genreBitmapIndex;
+    private final SearchResultCache searchResultCache;
+
+    public MoviePageResponseDto getAllMovies(Long after, int limit) {
+        int pageSize = pageSize(limit);
+        List<MovieResponsetDto> movies = movieRepository.findPageAfter(after, Limit.of(pageSize + 1));
+        return toPage(movies, pageSize);
+    }
+
+    public MoviePageResponseDto getByGenre(String genre, Long after, int limit) {
+        int pageSize = pageSize(limit);
+        List<MovieResponsetDto> movies = movieRepository.findPageByGenreAfter(genre, after, Limit.of(pageSize + 1));
+        return toPage(movies, pageSize);
+    }
 
-    public List<MovieResponsetDto> getAllMovies() {
-        List<Movie> movieList = movieRepository.findAll();
-        return movieList.stream()
-                .map(movie -> {
-                    MovieResponsetDto dto = movieMapper.toDto(movie);
-                    String genres = getGenresAsString(movie.getGenres());
-                    dto.setGenre(genres);
-                    return dto;
-                })
-                .collect(Collectors.toList());
-    }
-
-    public List<MovieResponsetDto> getByGenre(String genre) {
-        List<Movie> movieList = movieRepository.findByGenre(genre);
-        return movieList.stream()
-                .map(movie -> {
-                    MovieResponsetDto dto = movieMapper.toDto(movie);
-                    String genres = getGenresAsString(movie.getGenres());
-                    dto.setGenre(genres);
-                    return dto;
-                })
-                .collect(Collectors.toList());
+    // all: every genre must match, any: at least one, none: no match allowed; each may be empty
+    public MoviePageResponseDto getByGenres(List<String> all, List<String> any, List<String> none, Long after, int limit) {
+        int pageSize = pageSize(limit);
+        List<Long> allIds = genreIds(all);
+        List<Long> anyIds = genreIds(any);
+        List<Long> noneIds = genreIds(none);
+        List<MovieResponsetDto> movies;
+        if (genreBitmapIndex.isReady()) {
+            List<Long> ids = genreBitmapIndex.query(allIds, anyIds, noneIds, after, pageSize + 1);
+            movies = ids.isEmpty() ? List.of() : movieRepository.findDtosByIds(ids);
+        } else {
+            movies = movieRepository.findDtos(specGenres(allIds, anyIds, noneIds, after), Limit.of(pageSize + 1));
+        }
+        return toPage(movies, pageSize);
+    }
+
+    private List<Long> genreIds(List<String> names) {
+        List<String> parsed = parseGenreNames(String.join(",", names));
+        if (parsed.isEmpty()) {
+            return List.of();
+        }
+        return genreService.findAllByNames(parsed).stream().map(Genre::getId).toList();
+    }
+
+    @Transactional(readOnly = true)
+    public void exportMovies(OutputStream outputStream) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<Movie> movies = movieRepository.streamAll();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<Movie> iterator = movies.iterator();
+            while (iterator.hasNext()) {
+                Movie movie = iterator.next();
+                MovieResponsetDto dto = movieMapper.toDto(movie);
+                dto.setGenre(getGenresAsString(movie.getGenres()));
+                writer.writeValue(generator, dto);
+                generator.writeRaw('\n');
+                entityManager.detach(movie);
+            }
+        }
     }
 
     public MovieResponsetDto getMovie(Long id) {
-        Movie movie = movieRepository.findById(id).orElseThrow(()-> new NotFoundException(Movie.class.getSimpleName()));
-        String genres = getGenresAsString(movie.getGenres());
-        MovieResponsetDto dto = movieMapper.toDto(movie);
-        dto.setGenre(genres);
-        return dto;
+        return movieRepository.findDtoById(id).orElseThrow(()-> new NotFoundException(Movie.class.getSimpleName()));
     }
 
     public Long addMovie(MovieRequestDto movieRequestDto) {
 
-        String[] genreNames = movieRequestDto.getGenres().split(",");
-        List<Genre> genreList = Arrays.stream(genreNames).map(String::trim).map(name ->
-                genreRepository.findByName(name.toLowerCase()).orElseThrow(() -> new NotFoundException(Genre.class.getSimpleName()))).toList();
+        List<Genre> genreList = resolveGenres(movieRequestDto.getGenres());
         Movie movie = movieMapper.dtoToEntity(movieRequestDto);
         movie.setGenres(genreList);
         Movie save = movieRepository.save(movie);
+        eventPublisher.publishEvent(MovieChangedEvent.saved(save));
         return save.getId();
     }
 
     public MovieResponsetDto updateMovie(Long id, MovieUpdateDto movieUpdateDto) {
         Movie movie = movieRepository.findById(id).orElseThrow(()-> new NotFoundException(Movie.class.getSimpleName()));
 
+        List<Genre> genreList = movieUpdateDto.getGenres() != null ? resolveGenres(movieUpdateDto.getGenres()) : null;
         movieMapper.updatetoMovie(movie, movieUpdateDto);
-        if(movieUpdateDto.getGenres() != null) {
-            String[] genreNames = movieUpdateDto.getGenres().split(",");
-            List<Genre> genreList = Arrays.stream(genreNames).map(String::trim).map(name ->
-                    genreRepository.findByName(name.toLowerCase()).orElseThrow(() -> new NotFoundException(Genre.class.getSimpleName()))).toList();
+        if(genreList != null) {
             movie.setGenres(genreList);
         }
         movieRepository.save(movie);
+        eventPublisher.publishEvent(MovieChangedEvent.saved(movie));
         MovieResponsetDto responsetDto = movieMapper.toDto(movie);
         String genres = getGenresAsString(movie.getGenres());
         responsetDto.setGenre(genres);
@@ -92,35 +147,162 @@ public class MovieService {
         Movie movie = movieRepository.findById(id).orElseThrow(()-> new NotFoundException(Movie.class.getSimpleName()));
         String genres = getGenresAsString(movie.getGenres());
         movieRepository.delete(movie);
+        eventPublisher.publishEvent(MovieChangedEvent.deleted(id));
         MovieResponsetDto dto = movieMapper.toDto(movie);
         dto.setGenre(genres);
         return dto;
     }
 
-    public String getGenresAsString(List<Genre> genreList) {
+    private List<Genre> resolveGenres(String genres) {
+        return genreService.findAllByNames(parseGenreNames(genres));
+    }
+
+    public static List<String> parseGenreNames(String genres) {
+        return Arrays.stream(genres.split(",")).map(String::trim).filter(name -> !name.isEmpty()).toList();
+    }
+
+    static int pageSize(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+    }
+
+    // pages are fetched with one extra row so the last page doesn't hand out a cursor to an empty page
+    private MoviePageResponseDto toPage(List<MovieResponsetDto> movies, int pageSize) {
+        Long nextCursor = null;
+        if (movies.size() > pageSize) {
+            movies = movies.subList(0, pageSize);
+            nextCursor = movies.get(pageSize - 1).getId();
+        }
+        return MoviePageResponseDto.builder().movies(movies).nextCursor(nextCursor).build();
+    }
+
+    public static String getGenresAsString(List<Genre> genreList) {
         return genreList.stream()
                 .map(Genre::getName)
                 .collect(Collectors.joining(","));
     }
 
     public List<MovieResponsetDto> searchMovie(MovieSearchRequest movieSearchRequest) {
+        MovieSearchRequest normalized = normalize(movieSearchRequest);
+        return searchResultCache.get(normalized, false,
+                () -> MovieSearchResponseDto.builder().movies(findMovies(normalized)).build()).getMovies();
+    }
+
+    public MovieSearchResponseDto searchMovieWithFacets(MovieSearchRequest movieSearchRequest) {
+        MovieSearchRequest normalized = normalize(movieSearchRequest);
+        return searchResultCache.get(normalized, true, () -> findMoviesWithFacets(normalized));
+    }
+
+    // ranked searches count their top hits; filter searches count every match, grouped by the index or the database
+    private MovieSearchResponseDto findMoviesWithFacets(MovieSearchRequest searchRequest) {
+        if (StringUtils.hasText(searchRequest.getQuery())) {
+            List<MovieResponsetDto> hits = searchText(searchRequest);
+            FacetCounter facets = new FacetCounter();
+            hits.forEach(facets::movie);
+            return MovieSearchResponseDto.builder().movies(hits).facets(facets.toDto()).build();
+        }
+        if (columnarMovieIndex.isReady() && columnarMovieIndex.supports(searchRequest)) {
+            return columnarMovieIndex.searchWithFacets(searchRequest);
+        }
+        Specification<Movie> specification = specMovie(searchRequest);
+        List<MovieResponsetDto> movies = movieRepository.findDtos(specification);
+        FacetCounter facets = new FacetCounter();
+        movieRepository.countByYearAndRating(specification)
+                .forEach(group -> facets.year(group.year(), group.count()).imdbScore(group.imdbScore(), group.count()));
+        movieRepository.countByGenre(specification).forEach(group -> facets.genre(group.genre(), group.count()));
+        return MovieSearchResponseDto.builder().movies(movies).facets(facets.toDto()).build();
+    }
 
-        List<Movie> all = movieRepository.findAll(specMovie(movieSearchRequest));
-        return all.stream()
-                .map(movie -> {
-                    MovieResponsetDto dto = movieMapper.toDto(movie);
-                    String genres = getGenresAsString(movie.getGenres());
-                    dto.setGenre(genres);
-                    return dto;
-                })
-                .collect(Collectors.toList());
+    private List<MovieResponsetDto> findMovies(MovieSearchRequest movieSearchRequest) {
+        if (StringUtils.hasText(movieSearchRequest.getQuery())) {
+            return searchText(movieSearchRequest);
+        }
+        if (columnarMovieIndex.isReady() && columnarMovieIndex.supports(movieSearchRequest)) {
+            return columnarMovieIndex.search(movieSearchRequest);
+        }
+        return movieRepository.findDtos(specMovie(movieSearchRequest));
+    }
 
+    private List<MovieResponsetDto> searchText(MovieSearchRequest searchRequest) {
+        String prefixQuery = toPrefixQuery(searchRequest.getQuery());
+        if (prefixQuery.isEmpty()) {
+            return List.of();
+        }
+        return movieRepository.searchText(searchRequest.getQuery(), prefixQuery,
+                        searchRequest.getTitle(), searchRequest.getDirector(),
+                        searchRequest.getBeginyear(), searchRequest.getEndyear(), searchRequest.getImdb(),
+                        scoreOrNone(searchRequest.getMinImdbScore()), scoreOrNone(searchRequest.getMaxImdbScore()), searchRequest.getLimit())
+                .stream()
+                .map(movieMapper::hitToDto)
+                .toList();
+    }
+
+    // one form per distinct search, so equal searches share a cache entry: blank filters count as absent, the free-text
+    // query is trimmed, lower-cased and single-spaced (its trigram and tsquery matching ignore case and spacing anyway)
+    // and the limit is resolved, or dropped when there is no query for it to apply to.
+    // title, director and imdb stay exact-match filters and are kept as given
+    public static MovieSearchRequest normalize(MovieSearchRequest searchRequest) {
+        String query = StringUtils.hasText(searchRequest.getQuery())
+                ? String.join(" ", searchRequest.getQuery().trim().toLowerCase(Locale.ROOT).split("\\s+"))
+                : null;
+        int limit = 0;
+        if (query != null) {
+            limit = searchRequest.getLimit() > 0 ? Math.min(searchRequest.getLimit(), MAX_SEARCH_LIMIT) : DEFAULT_SEARCH_LIMIT;
+        }
+        return MovieSearchRequest.builder()
+                .title(blankToNull(searchRequest.getTitle()))
+                .director(blankToNull(searchRequest.getDirector()))
+                .beginyear(searchRequest.getBeginyear())
+                .endyear(searchRequest.getEndyear())
+                .imdb(blankToNull(searchRequest.getImdb()))
+                .minImdb(searchRequest.getMinImdb())
+                .maxImdb(searchRequest.getMaxImdb())
+                .query(query)
+                .limit(limit)
+                .build();
+    }
+
+    private static String blankToNull(String value) {
+        return StringUtils.hasText(value) ? value : null;
+    }
 
+    // -1 is how the native text query is told a rating bound is absent
+    private static int scoreOrNone(Short imdbScore) {
+        return imdbScore == null ? -1 : imdbScore;
+    }
+
+    // "sherlock hol" -> "sherlock:* & hol:*", so every token also matches as a word prefix
+    public static String toPrefixQuery(String query) {
+        return Arrays.stream(query.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .map(token -> token + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+
+    public static Specification<Movie> specGenres(List<Long> all, List<Long> any, List<Long> none, Long after) {
+        return (Root<Movie> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
+            Predicate predicate = cb.greaterThan(root.get("id"), after);
+            for (Long genreId : all) {
+                predicate = cb.and(predicate, root.get("id").in(moviesInGenres(query, List.of(genreId))));
+            }
+            if (!any.isEmpty()) {
+                predicate = cb.and(predicate, root.get("id").in(moviesInGenres(query, any)));
+            }
+            if (!none.isEmpty()) {
+                predicate = cb.and(predicate, cb.not(root.get("id").in(moviesInGenres(query, none))));
+            }
+            return predicate;
+        };
+    }
+
+    private static Subquery<Long> moviesInGenres(CriteriaQuery<?> query, List<Long> genreIds) {
+        Subquery<Long> subquery = query.subquery(Long.class);
+        Root<Movie> movie = subquery.from(Movie.class);
+        Join<Movie, Genre> genre = movie.join("genres");
+        return subquery.select(movie.get("id")).where(genre.get("id").in(genreIds));
     }
 
     public static Specification<Movie> specMovie(MovieSearchRequest searchRequest) {
         return (Root<Movie> root, CriteriaQuery<?> query, CriteriaBuilder cb) -> {
-            root.fetch("genres", JoinType.LEFT);
             Predicate predicate = cb.conjunction();
             if (searchRequest.getTitle() != null) {
                 predicate = cb.and(predicate, cb.equal(root.get("title"), searchRequest.getTitle()));
@@ -141,6 +323,13 @@ public class MovieService {
             if (searchRequest.getImdb() != null) {
                 predicate = cb.and(predicate, cb.equal(root.get("imdb"), searchRequest.getImdb()));
             }
+            // range predicates on the indexed imdb_score column
+            if (searchRequest.getMinImdbScore() != null) {
+                predicate = cb.and(predicate, cb.greaterThanOrEqualTo(root.get("imdbScore"), searchRequest.getMinImdbScore()));
+            }
+            if (searchRequest.getMaxImdbScore() != null) {
+                predicate = cb.and(predicate, cb.lessThanOrEqualTo(root.get("imdbScore"), searchRequest.getMaxImdbScore()));
+            }
             return predicate;
         };
     }
@@ -0,0 +1,274 @@
+package org.app.movie.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.dto.request.MovieRequestDto;
+import org.app.movie.exception.GenresNotFoundException;
+import org.app.movie.exception.WriteQueueFullException;
+import org.app.movie.exception.WriteTimeoutException;
+import org.app.movie.mapper.MovieMapper;
+import org.app.movie.model.Genre;
+import org.app.movie.model.Movie;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// groups single movie creates into micro-batches: one genre lookup, one transaction and batched inserts per batch.
+// a caller is only answered once the batch holding its movie has committed, with its own id or its own error
+@Service
+@Slf4j
+public class MovieWriteCoalescer implements DisposableBean {
+
+    private static final long SHUTDOWN_GRACE_MILLIS = 30_000;
+
+    private final MovieBulkService movieBulkService;
+    private final GenreService genreService;
+    private final MovieMapper movieMapper;
+    private final MovieProperties.Bulk.Coalescer settings;
+    private final BlockingQueue<PendingCreate> queue;
+    private final DistributionSummary batchSizes;
+    private final Thread writer = new Thread(this::drain, "movie-write-coalescer");
+    // guards stopped together with the enqueue, so nothing is queued after the last drain
+    private final Object submitLock = new Object();
+    private volatile boolean stopped;
+    private String stopReason;
+
+    record PendingCreate(MovieRequestDto request, CompletableFuture<Long> result) {
+    }
+
+    public MovieWriteCoalescer(MovieBulkService movieBulkService, GenreService genreService, MovieMapper movieMapper,
+                               MovieProperties movieProperties, MeterRegistry meterRegistry) {
+        this.movieBulkService = movieBulkService;
+        this.genreService = genreService;
+        this.movieMapper = movieMapper;
+        this.settings = movieProperties.getBulk().getCoalescer();
+        this.queue = new ArrayBlockingQueue<>(Math.max(settings.getQueueCapacity(), 1));
+        this.batchSizes = DistributionSummary.builder("movie.write.coalescer.batch")
+                .description("Movie creates committed per coalesced transaction")
+                .register(meterRegistry);
+        Gauge.builder("movie.write.coalescer.queue", queue, BlockingQueue::size)
+                .description("Movie creates waiting for the next batch")
+                .register(meterRegistry);
+        writer.setDaemon(true);
+    }
+
+    public boolean isEnabled() {
+        return settings.isEnabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (isEnabled() && !writer.isAlive()) {
+            writer.start();
+            log.info("Movie write coalescer started: batch size {}, linger {}, queue capacity {}",
+                    settings.getBatchSize(), settings.getLinger(), settings.getQueueCapacity());
+        }
+    }
+
+    // blocks until the movie is committed or the timeout passes; rethrows what its insert failed with
+    public Long addMovie(MovieRequestDto movieRequestDto) {
+        CompletableFuture<Long> result = submit(movieRequestDto);
+        try {
+            return result.get(settings.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new WriteTimeoutException("Movie was not committed within " + settings.getTimeout()
+                    + ", it may still be written; check before retrying");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new WriteTimeoutException("Interrupted while the movie was being written, it may still be written");
+        }
+    }
+
+    public CompletableFuture<Long> submit(MovieRequestDto movieRequestDto) {
+        PendingCreate pending = new PendingCreate(movieRequestDto, new CompletableFuture<>());
+        synchronized (submitLock) {
+            if (stopped) {
+                throw new WriteQueueFullException(stopReason);
+            }
+            if (!queue.offer(pending)) {
+                throw new WriteQueueFullException("Movie write queue is full (" + settings.getQueueCapacity() + " pending), retry later");
+            }
+        }
+        return pending.result();
+    }
+
+    // finishes what is queued before the context closes; anything left after the grace period is failed, not dropped
+    @Override
+    public void destroy() throws InterruptedException {
+        stop("Movie writes are shutting down, retry against another instance");
+        if (writer.isAlive()) {
+            writer.join(SHUTDOWN_GRACE_MILLIS);
+        }
+        failQueued("Movie writes shut down before this movie was written");
+    }
+
+    private void stop(String reason) {
+        synchronized (submitLock) {
+            if (!stopped) {
+                stopReason = reason;
+                stopped = true;
+            }
+        }
+    }
+
+    // nothing thrown in here may end the thread while callers wait; if it ends anyway, whatever is queued is failed
+    // and new creates are turned away instead of waiting for a writer that is gone
+    private void drain() {
+        int batchSize = Math.max(settings.getBatchSize(), 1);
+        List<PendingCreate> batch = new ArrayList<>(batchSize);
+        try {
+            while (!stopped || !queue.isEmpty()) {
+                try {
+                    PendingCreate first = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    collect(batch, batchSize);
+                    flush(batch);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    try {
+                        flush(batch);
+                    } catch (Throwable flushFailure) {
+                        fail(batch, flushFailure);
+                    }
+                    return;
+                } catch (Throwable ex) {
+                    log.error("Coalesced movie batch of {} failed", batch.size(), ex);
+                    fail(batch, ex);
+                } finally {
+                    batch.clear();
+                }
+            }
+        } finally {
+            stop("Movie writer stopped, retry against another instance");
+            failQueued("Movie writer stopped before this movie was written");
+        }
+    }
+
+    private void failQueued(String reason) {
+        List<PendingCreate> left = new ArrayList<>();
+        queue.drainTo(left);
+        fail(left, new WriteQueueFullException(reason));
+    }
+
+    private static void fail(List<PendingCreate> pendings, Throwable cause) {
+        pendings.forEach(pending -> pending.result().completeExceptionally(cause));
+    }
+
+    // whatever is already queued joins straight away; after that the batch waits out the rest of the linger window
+    private void collect(List<PendingCreate> batch, int batchSize) throws InterruptedException {
+        long deadline = System.nanoTime() + settings.getLinger().toNanos();
+        while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            PendingCreate next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    void flush(List<PendingCreate> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSizes.record(batch.size());
+        Map<String, Genre> genres = resolveGenres(batch);
+        List<PendingCreate> ready = new ArrayList<>(batch.size());
+        for (PendingCreate pending : batch) {
+            List<String> missing = genreKeys(pending).stream().filter(key -> !genres.containsKey(key)).toList();
+            if (missing.isEmpty()) {
+                ready.add(pending);
+            } else {
+                pending.result().completeExceptionally(new GenresNotFoundException(missing));
+            }
+        }
+        if (ready.isEmpty()) {
+            return;
+        }
+        try {
+            complete(ready, movieBulkService.insertAll(movies(ready, genres)));
+        } catch (RuntimeException ex) {
+            // one bad row shouldn't fail its neighbours: every create gets its own transaction and its own answer
+            log.warn("Coalesced insert of {} movies rolled back, retrying them one by one", ready.size(), ex);
+            for (PendingCreate pending : ready) {
+                try {
+                    complete(List.of(pending), movieBulkService.insertAll(movies(List.of(pending), genres)));
+                } catch (RuntimeException single) {
+                    pending.result().completeExceptionally(single);
+                }
+            }
+        }
+    }
+
+    // one lookup for the whole batch; names nobody has are looked up again without the unknown ones
+    private Map<String, Genre> resolveGenres(List<PendingCreate> batch) {
+        Set<String> keys = new LinkedHashSet<>();
+        batch.forEach(pending -> keys.addAll(genreKeys(pending)));
+        List<String> known = new ArrayList<>(keys);
+        List<Genre> found;
+        try {
+            found = genreService.findAllByNames(known);
+        } catch (GenresNotFoundException ex) {
+            known.removeAll(ex.getNames());
+            found = known.isEmpty() ? List.of() : genreService.findAllByNames(known);
+        }
+        Map<String, Genre> genres = new HashMap<>();
+        for (int i = 0; i < known.size(); i++) {
+            genres.put(known.get(i), found.get(i));
+        }
+        return genres;
+    }
+
+    // the same keys GenreService.findAllByNames works with, so a movie keeps the genre order addMovie would give it
+    private static List<String> genreKeys(PendingCreate pending) {
+        return MovieService.parseGenreNames(pending.request().getGenres()).stream().map(String::toLowerCase).distinct().toList();
+    }
+
+    private List<Movie> movies(List<PendingCreate> pendings, Map<String, Genre> genres) {
+        List<Movie> movies = new ArrayList<>(pendings.size());
+        for (PendingCreate pending : pendings) {
+            Movie movie = movieMapper.dtoToEntity(pending.request());
+            movie.setGenres(genreKeys(pending).stream().map(genres::get).toList());
+            movies.add(movie);
+        }
+        return movies;
+    }
+
+    private static void complete(List<PendingCreate> pendings, List<Movie> saved) {
+        for (int i = 0; i < pendings.size(); i++) {
+            pendings.get(i).result().complete(saved.get(i).getId());
+        }
+    }
+}
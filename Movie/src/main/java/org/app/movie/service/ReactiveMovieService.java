@@ -0,0 +1,43 @@
+package org.app.movie.service;
+
+import lombok.RequiredArgsConstructor;
+import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.exception.NotFoundException;
+import org.app.movie.model.Movie;
+import org.app.movie.repository.ReactiveMovieRepository;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// non-blocking reads; writes stay on MovieService
+@Service
+@RequiredArgsConstructor
+public class ReactiveMovieService {
+
+    private final ReactiveMovieRepository reactiveMovieRepository;
+
+    public Flux<MovieResponsetDto> getAllMovies(Long after, int limit) {
+        return reactiveMovieRepository.findPageAfter(after, MovieService.pageSize(limit));
+    }
+
+    public Flux<MovieResponsetDto> getByGenre(String genre, Long after, int limit) {
+        return reactiveMovieRepository.findPageByGenreAfter(genre, after, MovieService.pageSize(limit));
+    }
+
+    public Mono<MovieResponsetDto> getMovie(Long id) {
+        return reactiveMovieRepository.findDtoById(id)
+                .switchIfEmpty(Mono.error(() -> new NotFoundException(Movie.class.getSimpleName())));
+    }
+
+    // structured filters only, normalized like POST /movie/search; ranked free-text search stays there
+    public Flux<MovieResponsetDto> searchMovie(MovieSearchRequest movieSearchRequest) {
+        if (StringUtils.hasText(movieSearchRequest.getQuery())) {
+            return Flux.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, "query is not supported here, use POST /movie/search"));
+        }
+        return reactiveMovieRepository.search(MovieService.normalize(movieSearchRequest));
+    }
+}
@@ -0,0 +1,137 @@
+package org.app.movie.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.dto.response.CacheRegionStatisticsDto;
+import org.app.movie.dto.response.MovieFacetsDto;
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.dto.response.MovieSearchResponseDto;
+import org.app.movie.event.GenreChangedEvent;
+import org.app.movie.event.MovieChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// search results by normalized request, bounded by estimated heap size and a time to live.
+// keys carry the movie catalog version, so a result loaded before a write is never served after it;
+// the event listeners only free that memory early.
+// the query runs on the caller's thread outside the map (the mapping function only installs a future), so a slow search
+// holds up neither other keys nor invalidation, and the per-request SQL counters still see its statements
+@Service
+public class SearchResultCache {
+
+    public static final String REGION = "movie-search";
+
+    private final CatalogVersionService catalogVersionService;
+    private final MovieProperties.Search.ResultCache settings;
+    private final AsyncCache<Key, MovieSearchResponseDto> cache;
+
+    record Key(String version, MovieSearchRequest request, boolean facets) {
+    }
+
+    public SearchResultCache(CatalogVersionService catalogVersionService, MovieProperties movieProperties, MeterRegistry meterRegistry) {
+        this.catalogVersionService = catalogVersionService;
+        this.settings = movieProperties.getSearch().getResultCache();
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(settings.getMaximumSize().toBytes())
+                .weigher((Key key, MovieSearchResponseDto response) -> weigh(response))
+                .expireAfterWrite(settings.getTimeToLive())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, REGION);
+        Gauge.builder("movie.search.cache.weight", this, SearchResultCache::estimatedBytes)
+                .description("Estimated heap taken by cached search results")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // the request must already be normalized (MovieService.normalize), otherwise equal searches split entries
+    public MovieSearchResponseDto get(MovieSearchRequest normalized, boolean facets, Supplier<MovieSearchResponseDto> loader) {
+        if (!settings.isEnabled()) {
+            return loader.get();
+        }
+        Key key = new Key(catalogVersionService.movies().etag(), normalized, facets);
+        CompletableFuture<MovieSearchResponseDto> created = new CompletableFuture<>();
+        CompletableFuture<MovieSearchResponseDto> cached = cache.get(key, (ignored, executor) -> created);
+        if (cached != created) {
+            try {
+                return cached.join();
+            } catch (CompletionException ex) {
+                // the caller that loaded it already got the error; this one searches for itself
+                return copy(loader.get());
+            }
+        }
+        try {
+            MovieSearchResponseDto response = copy(loader.get());
+            created.complete(response);
+            return response;
+        } catch (Throwable ex) {
+            // a failed future is dropped from the cache, so the next search loads again
+            created.completeExceptionally(ex);
+            throw ex;
+        }
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        cache.synchronous().invalidateAll();
+    }
+
+    // results embed genre names
+    @EventListener
+    public void onGenreChanged(GenreChangedEvent event) {
+        cache.synchronous().invalidateAll();
+    }
+
+    public CacheRegionStatisticsDto statistics() {
+        CacheStats stats = cache.synchronous().stats();
+        return CacheRegionStatisticsDto.builder().
+                region(REGION).
+                hitCount(stats.hitCount()).
+                missCount(stats.missCount()).
+                putCount(stats.loadSuccessCount()).
+                hitRatio(stats.requestCount() == 0 ? 0 : stats.hitRate()).
+                size(cache.synchronous().estimatedSize()).
+                estimatedBytes(estimatedBytes()).
+                build();
+    }
+
+    // pending maintenance is applied first; Caffeine updates the weighted size after writes, not during them
+    public long estimatedBytes() {
+        cache.synchronous().cleanUp();
+        return cache.synchronous().policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L);
+    }
+
+    private static MovieSearchResponseDto copy(MovieSearchResponseDto response) {
+        return new MovieSearchResponseDto(List.copyOf(response.getMovies()), response.getFacets());
+    }
+
+    // rough retained size: list slots, one dto header with its fields, each string at one byte per latin-1 char,
+    // and one map node per facet bucket
+    static int weigh(MovieSearchResponseDto response) {
+        long bytes = 32 + 4L * response.getMovies().size();
+        for (MovieResponsetDto movie : response.getMovies()) {
+            bytes += 40 + weigh(movie.getTitle()) + weigh(movie.getDirector()) + weigh(movie.getGenre()) + weigh(movie.getImdb());
+        }
+        MovieFacetsDto facets = response.getFacets();
+        if (facets != null) {
+            bytes += 64L * (facets.getGenres().size() + facets.getDecades().size() + facets.getRatings().size());
+            bytes += facets.getGenres().keySet().stream().mapToLong(SearchResultCache::weigh).sum();
+        }
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    private static long weigh(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+}
@@ -0,0 +1,112 @@
+package org.app.movie.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.dto.response.CatalogVersion;
+import org.app.movie.event.GenreChangedEvent;
+import org.app.movie.event.MovieChangedEvent;
+import org.app.movie.format.ResponseEncoder;
+import org.app.movie.format.ResponseFormat;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+// encoded bytes (and a gzip copy) of list responses, so a warm read is an array copy instead of query + mapping + Jackson + gzip.
+// keys carry the catalog version and the format, so a stale entry is never served; the event listeners only free memory early
+@Service
+public class SerializedResponseCache {
+
+    public static final String MOVIES = "movies";
+    public static final String GENRES = "genres";
+
+    private final ResponseEncoder responseEncoder;
+    private final MovieProperties movieProperties;
+    private final AsyncCache<String, Entry> cache;
+
+    public SerializedResponseCache(ResponseEncoder responseEncoder, MovieProperties movieProperties) {
+        this.responseEncoder = responseEncoder;
+        this.movieProperties = movieProperties;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(movieProperties.getResponseCache().getMaximumSize().toBytes())
+                .weigher((String key, Entry entry) -> entry.weight())
+                .buildAsync();
+    }
+
+    public record Entry(ResponseFormat format, byte[] body, byte[] gzip) {
+
+        int weight() {
+            return body.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+
+    // the first caller for a key builds the entry on its own thread, concurrent callers wait for that same future
+    public Entry get(String namespace, String key, CatalogVersion version, ResponseFormat format, Supplier<?> loader) {
+        if (!movieProperties.getResponseCache().isEnabled()) {
+            return serialize(format, loader.get());
+        }
+        String cacheKey = namespace + ':' + key + '@' + format.etag(version.etag());
+        CompletableFuture<Entry> created = new CompletableFuture<>();
+        CompletableFuture<Entry> existing = cache.asMap().putIfAbsent(cacheKey, created);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException ex) {
+                // the builder already got the error; this reader just builds for itself
+                return serialize(format, loader.get());
+            }
+        }
+        try {
+            Entry entry = serialize(format, loader.get());
+            created.complete(entry);
+            return entry;
+        } catch (RuntimeException ex) {
+            created.completeExceptionally(ex);
+            cache.asMap().remove(cacheKey, created);
+            throw ex;
+        }
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        evict(MOVIES);
+    }
+
+    // movie lists embed genre names
+    @EventListener
+    public void onGenreChanged(GenreChangedEvent event) {
+        evict(GENRES);
+        evict(MOVIES);
+    }
+
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    private void evict(String namespace) {
+        cache.asMap().keySet().removeIf(key -> key.startsWith(namespace + ':'));
+    }
+
+    private Entry serialize(ResponseFormat format, Object body) {
+        byte[] encoded = responseEncoder.encode(format, body);
+        long threshold = movieProperties.getResponseCache().getCompressionThreshold().toBytes();
+        return new Entry(format, encoded, encoded.length >= threshold ? gzip(encoded) : null);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return bytes.toByteArray();
+    }
+}
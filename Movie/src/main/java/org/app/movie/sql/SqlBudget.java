@@ -0,0 +1,17 @@
+package org.app.movie.sql;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// most JDBC statements one call of the annotated handler or service method may issue, nested calls included.
+// what happens over budget is up to movie.sql.budget-mode
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    int value();
+}
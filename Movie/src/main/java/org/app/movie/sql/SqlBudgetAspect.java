@@ -0,0 +1,33 @@
+package org.app.movie.sql;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.stereotype.Component;
+
+// one counting scope per call of the catalog services and of any @SqlBudget method.
+// the budget is checked when the method returns, before a handler's body is written
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class SqlBudgetAspect {
+
+    private final SqlBudgetReporter sqlBudgetReporter;
+
+    @Around("execution(public * org.app.movie.service.MovieService.*(..))"
+            + " || execution(public * org.app.movie.service.GenreService.*(..))"
+            + " || execution(public * org.app.movie.service.MovieBulkService.*(..))"
+            + " || @annotation(org.app.movie.sql.SqlBudget)")
+    public Object count(ProceedingJoinPoint joinPoint) throws Throwable {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        String name = signature.getDeclaringType().getSimpleName() + '.' + signature.getName();
+        Object result;
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open(name)) {
+            result = joinPoint.proceed();
+            sqlBudgetReporter.report("service", scope, signature.getMethod().getAnnotation(SqlBudget.class));
+        }
+        return result;
+    }
+}
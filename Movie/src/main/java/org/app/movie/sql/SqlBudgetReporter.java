@@ -0,0 +1,46 @@
+package org.app.movie.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.exception.SqlBudgetExceededException;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SqlBudgetReporter {
+
+    public static final String STATEMENTS = "movie.sql.statements";
+
+    private final MeterRegistry meterRegistry;
+    private final MovieProperties movieProperties;
+
+    // kind is "request" (name = route template) or "service" (name = Class.method), both bounded
+    public void report(String kind, SqlStatementCounter.Scope scope, SqlBudget budget) {
+        DistributionSummary.builder(STATEMENTS)
+                .description("JDBC statements prepared per request or service call")
+                .tags("kind", kind, "name", scope.name())
+                .register(meterRegistry)
+                .record(scope.count());
+
+        MovieProperties.Sql sql = movieProperties.getSql();
+        if (scope.isOutermost()) {
+            Map<String, Integer> repeated = scope.repeatedSelects(sql.getRepeatedSelectThreshold());
+            repeated.forEach((statement, times) ->
+                    log.warn("Possible N+1 in {}: statement prepared {} times: {}", scope.name(), times, statement));
+        }
+        if (budget == null || scope.count() <= budget.value() || sql.getBudgetMode() == MovieProperties.Sql.BudgetMode.OFF) {
+            return;
+        }
+        String message = scope.name() + " issued " + scope.count() + " SQL statements, budget is " + budget.value();
+        if (sql.getBudgetMode() == MovieProperties.Sql.BudgetMode.ENFORCE) {
+            throw new SqlBudgetExceededException(message);
+        }
+        log.warn(message);
+    }
+}
@@ -0,0 +1,91 @@
+package org.app.movie.sql;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// statements issued on the current thread, counted into every scope that is open on it.
+// work handed to other threads (fork/join scans, async dispatch) is not attributed to the caller
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Deque<Scope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private SqlStatementCounter() {
+    }
+
+    // try-with-resources; scopes have to be closed in the reverse order they were opened
+    public static Scope open(String name) {
+        Deque<Scope> scopes = SCOPES.get();
+        Scope scope = new Scope(name, scopes.isEmpty());
+        scopes.push(scope);
+        return scope;
+    }
+
+    static void record(String sql) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes.isEmpty()) {
+            return;
+        }
+        for (Scope scope : scopes) {
+            scope.record(sql);
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final String name;
+        private final boolean outermost;
+        private final Map<String, Integer> statements = new HashMap<>();
+        private int count;
+
+        private Scope(String name, boolean outermost) {
+            this.name = name;
+            this.outermost = outermost;
+        }
+
+        private void record(String sql) {
+            count++;
+            statements.merge(sql, 1, Integer::sum);
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public int count() {
+            return count;
+        }
+
+        // nested scopes leave reporting to the one that encloses them
+        public boolean isOutermost() {
+            return outermost;
+        }
+
+        // the same SELECT prepared this many times or more in one scope is the N+1 shape: one query per row of a previous one.
+        // repeated inserts and updates are left out, Hibernate prepares those once per JDBC batch
+        public Map<String, Integer> repeatedSelects(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            statements.forEach((sql, times) -> {
+                if (times >= threshold && sql.stripLeading().toLowerCase(Locale.ROOT).startsWith("select")) {
+                    repeated.put(sql, times);
+                }
+            });
+            return repeated;
+        }
+
+        @Override
+        public void close() {
+            Deque<Scope> scopes = SCOPES.get();
+            if (scopes.peek() != this) {
+                throw new IllegalStateException("SQL counting scope " + name + " closed out of order");
+            }
+            scopes.pop();
+            if (scopes.isEmpty()) {
+                SCOPES.remove();
+            }
+        }
+    }
+}
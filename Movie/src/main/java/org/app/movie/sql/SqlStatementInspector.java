@@ -0,0 +1,14 @@
+package org.app.movie.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// registered through hibernate.session_factory.statement_inspector; sees every statement Hibernate prepares.
+// plain JDBC (JdbcTemplate, R2DBC) bypasses it
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        SqlStatementCounter.record(sql);
+        return sql;
+    }
+}
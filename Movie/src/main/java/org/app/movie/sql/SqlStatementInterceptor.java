@@ -0,0 +1,53 @@
+package org.app.movie.sql;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// one counting scope per HTTP request, reported under its route template.
+// streaming and reactive handlers finish on other threads and are only counted up to the dispatch
+@Component
+@RequiredArgsConstructor
+public class SqlStatementInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SCOPE = SqlStatementInterceptor.class.getName() + ".scope";
+
+    private final SqlBudgetReporter sqlBudgetReporter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getAttribute(SCOPE) == null) {
+            request.setAttribute(SCOPE, SqlStatementCounter.open(request.getMethod() + ' ' + route(request)));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        SqlStatementCounter.Scope scope = (SqlStatementCounter.Scope) request.getAttribute(SCOPE);
+        if (scope != null) {
+            request.removeAttribute(SCOPE);
+            scope.close();
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        SqlStatementCounter.Scope scope = (SqlStatementCounter.Scope) request.getAttribute(SCOPE);
+        if (scope == null) {
+            return;
+        }
+        request.removeAttribute(SCOPE);
+        scope.close();
+        // the handler's own @SqlBudget was already checked by the aspect
+        sqlBudgetReporter.report("request", scope, null);
+    }
+
+    private static String route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
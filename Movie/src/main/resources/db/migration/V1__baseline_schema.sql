@@ -0,0 +1,29 @@
+-- The schema as the entities map it. Databases left behind by the old ddl-auto=update setup are baselined at
+-- version 0 (spring.flyway.baseline-on-migrate), so this script also runs there and must not fail on what exists.
+CREATE SEQUENCE IF NOT EXISTS genre_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS movie_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS genre (
+    id   bigint NOT NULL PRIMARY KEY,
+    name varchar(255) UNIQUE
+);
+
+CREATE TABLE IF NOT EXISTS movie (
+    id       bigint  NOT NULL PRIMARY KEY,
+    title    varchar(255),
+    director varchar(255),
+    year     integer NOT NULL,
+    imdb     varchar(255)
+);
+
+-- imdb * 10 ("7.6" -> 76), see Movie.imdbScore
+ALTER TABLE movie ADD COLUMN IF NOT EXISTS imdb_score smallint;
+
+CREATE TABLE IF NOT EXISTS movie_genre (
+    movie_id bigint NOT NULL REFERENCES movie (id),
+    genre_id bigint NOT NULL REFERENCES genre (id)
+);
+
+-- Ids come from pooled sequences; move them past rows that were inserted while ids were IDENTITY columns.
+SELECT setval('movie_seq', (SELECT MAX(id) FROM movie)) WHERE (SELECT MAX(id) FROM movie) > (SELECT last_value FROM movie_seq);
+SELECT setval('genre_seq', (SELECT MAX(id) FROM genre)) WHERE (SELECT MAX(id) FROM genre) > (SELECT last_value FROM genre_seq);
@@ -0,0 +1,13 @@
+-- movie_genre used to be mapped twice: by the @JoinTable of Movie.genres and by a MovieGenre entity that gave it a
+-- surrogate identity id. A link row is identified by the pair it links, so the pair becomes the primary key;
+-- duplicate and half-empty pairs written under the old mapping are dropped first.
+DELETE FROM movie_genre a
+USING movie_genre b
+WHERE a.ctid > b.ctid AND a.movie_id = b.movie_id AND a.genre_id = b.genre_id;
+
+DELETE FROM movie_genre WHERE movie_id IS NULL OR genre_id IS NULL;
+
+ALTER TABLE movie_genre DROP COLUMN IF EXISTS id;
+ALTER TABLE movie_genre ALTER COLUMN movie_id SET NOT NULL;
+ALTER TABLE movie_genre ALTER COLUMN genre_id SET NOT NULL;
+ALTER TABLE movie_genre ADD CONSTRAINT movie_genre_pkey PRIMARY KEY (movie_id, genre_id);
@@ -0,0 +1,27 @@
+-- Ranked text search (MovieRepository.searchText): trigram similarity on title/director and a prefix tsquery.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_movie_title_trgm ON movie USING gin (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_movie_director_trgm ON movie USING gin (director gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_movie_text_tsv ON movie USING gin (to_tsvector('simple', coalesce(title, '') || ' ' || coalesce(director, '')));
+
+-- imdb_score for rows written before the column existed; the entity fills it on every write since.
+UPDATE movie SET imdb_score = ROUND(CAST(trim(imdb) AS numeric) * 10)
+WHERE imdb_score IS NULL AND trim(imdb) ~ '^\d{1,2}(\.\d)?$';
+
+-- Filter search (MovieService.specMovie, ReactiveMovieRepository.searchWhere): equality on title/director/imdb,
+-- ranges on year and imdb_score. A director's or a title's films are usually narrowed by year, ratings by era;
+-- each composite also serves its leading column alone.
+CREATE INDEX IF NOT EXISTS idx_movie_director_year ON movie (director, year);
+CREATE INDEX IF NOT EXISTS idx_movie_title_year ON movie (title, year);
+CREATE INDEX IF NOT EXISTS idx_movie_year_imdb_score ON movie (year, imdb_score);
+CREATE INDEX IF NOT EXISTS idx_movie_imdb_score ON movie (imdb_score);
+CREATE INDEX IF NOT EXISTS idx_movie_imdb ON movie (imdb);
+
+-- movie_genre is read by movie through its primary key and by genre for the genre pages, the genre bitmap index
+-- load and the genre-in-use probe; (genre_id, movie_id) answers those from the index alone.
+DROP INDEX IF EXISTS idx_movie_genre_movie_id;
+DROP INDEX IF EXISTS idx_movie_genre_genre_id;
+CREATE INDEX idx_movie_genre_genre_id ON movie_genre (genre_id, movie_id);
+
+-- genre.name lookups use the index behind its unique constraint.
+DROP INDEX IF EXISTS idx_genre_name;
@@ -0,0 +1,73 @@
+package org.app.movie.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConcurrencyLimitedDataSourceTest {
+
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+
+    @Test
+    void getConnectionOverLimitAndThenTimeOutUntilOneIsClosed() throws SQLException {
+
+        //Arrange
+        when(dataSource.getConnection()).thenReturn(connection);
+        ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(dataSource, 1, Duration.ofMillis(20));
+
+        //Act
+        Connection first = limited.getConnection();
+
+        //Assert
+        assertThatThrownBy(limited::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        first.close();
+        first.close();
+        assertThat(limited.availablePermits()).isEqualTo(1);
+        assertThat(((ConnectionProxy) limited.getConnection()).getTargetConnection()).isSameAs(connection);
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void getConnectionFailingAndThenReleasePermit() throws SQLException {
+
+        //Arrange
+        when(dataSource.getConnection()).thenThrow(new SQLException("pool exhausted"));
+        ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(dataSource, 1, Duration.ofMillis(20));
+
+        //Act&Assert
+        assertThatThrownBy(limited::getConnection).hasMessage("pool exhausted");
+        assertThat(limited.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void callsOnConnectionAndThenDelegate() throws SQLException {
+
+        //Arrange
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.getAutoCommit()).thenReturn(true);
+        ConcurrencyLimitedDataSource limited = new ConcurrencyLimitedDataSource(dataSource, 2, Duration.ofMillis(20));
+
+        //Act&Assert
+        try (Connection proxy = limited.getConnection()) {
+            assertThat(proxy.getAutoCommit()).isTrue();
+            assertThat(limited.availablePermits()).isEqualTo(1);
+        }
+        assertThat(limited.availablePermits()).isEqualTo(2);
+    }
+}
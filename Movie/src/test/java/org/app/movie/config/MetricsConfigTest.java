@@ -0,0 +1,54 @@
+package org.app.movie.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.app.movie.exception.NotFoundException;
+import org.app.movie.mapper.GenreMapper;
+import org.app.movie.repository.GenreRepository;
+import org.app.movie.service.GenreService;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class MetricsConfigTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GenreRepository genreRepository = mock(GenreRepository.class);
+
+    @Test
+    void timedServiceAndThenRecordPerMethodTimersWithOutcome() {
+
+        //Arrange
+        AspectJProxyFactory factory = new AspectJProxyFactory(
+                new GenreService(genreRepository, mock(GenreMapper.class), mock(ApplicationEventPublisher.class),
+                        mock(TransactionTemplate.class)));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new MetricsConfig().timedAspect(meterRegistry));
+        GenreService genreService = factory.getProxy();
+        when(genreRepository.findAll()).thenReturn(List.of());
+        when(genreRepository.findById(1L)).thenReturn(Optional.empty());
+
+        //Act
+        genreService.getAllGenres();
+        genreService.getAllGenres();
+        assertThatThrownBy(() -> genreService.getGenre(1L)).isInstanceOf(NotFoundException.class);
+
+        //Assert
+        Timer all = meterRegistry.find(MetricsConfig.SERVICE_TIMER).tag("method", "getAllGenres").timer();
+        assertThat(all).isNotNull();
+        assertThat(all.count()).isEqualTo(2);
+        assertThat(all.getId().getTag("class")).isEqualTo(GenreService.class.getName());
+        Timer failed = meterRegistry.find(MetricsConfig.SERVICE_TIMER)
+                .tags("method", "getGenre", "exception", "NotFoundException").timer();
+        assertThat(failed).isNotNull();
+        assertThat(failed.count()).isEqualTo(1);
+    }
+}
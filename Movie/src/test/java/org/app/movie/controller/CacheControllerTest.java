@@ -0,0 +1,74 @@
+package org.app.movie.controller;
+
+import org.app.movie.dto.response.CacheRegionStatisticsDto;
+import org.app.movie.format.ResponseEncoder;
+import org.app.movie.service.CacheStatisticsService;
+import org.app.movie.sql.SqlBudgetReporter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CacheController.class)
+@Import(ResponseEncoder.class)
+class CacheControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CacheStatisticsService cacheStatisticsService;
+
+    @MockBean
+    private SqlBudgetReporter sqlBudgetReporter;
+
+    @Test
+    void returnSecondLevelCacheStatistics() throws Exception {
+
+        //Arrange
+        CacheRegionStatisticsDto dto = CacheRegionStatisticsDto.builder().
+                region("genre").
+                hitCount(3).
+                missCount(1).
+                hitRatio(0.75).
+                build();
+        when(cacheStatisticsService.getSecondLevelCacheStatistics()).thenReturn(List.of(dto));
+
+        //Act&Assert
+        mockMvc.perform(get("/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("[0].region").value("genre"))
+                .andExpect(jsonPath("[0].hitRatio").value(0.75));
+    }
+
+    @Test
+    void returnSearchResultCacheStatistics() throws Exception {
+
+        //Arrange
+        CacheRegionStatisticsDto dto = CacheRegionStatisticsDto.builder().
+                region("movie-search").
+                hitCount(9).
+                missCount(1).
+                hitRatio(0.9).
+                size(1).
+                estimatedBytes(4096).
+                build();
+        when(cacheStatisticsService.getSearchResultCacheStatistics()).thenReturn(dto);
+
+        //Act&Assert
+        mockMvc.perform(get("/cache/search/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("region").value("movie-search"))
+                .andExpect(jsonPath("hitRatio").value(0.9))
+                .andExpect(jsonPath("estimatedBytes").value(4096));
+    }
+}
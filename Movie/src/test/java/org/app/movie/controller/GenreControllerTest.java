@@ -2,7 +2,12 @@ package org.app.movie.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.app.movie.dto.response.GenreResponseDto;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.format.ResponseEncoder;
+import org.app.movie.service.CatalogVersionService;
+import org.app.movie.service.SerializedResponseCache;
 import org.app.movie.service.GenreService;
+import org.app.movie.sql.SqlBudgetReporter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,6 +15,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.restdocs.RestDocumentationContextProvider;
 import org.springframework.restdocs.RestDocumentationExtension;
@@ -24,6 +31,8 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.restdocs.mockmvc.MockMvcRestDocumentation.documentationConfiguration;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -33,6 +42,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 
 @WebMvcTest(GenreController.class)
+@Import({CatalogVersionService.class, SerializedResponseCache.class, ResponseEncoder.class, MovieProperties.class})
 class GenreControllerTest {
 
 
@@ -42,6 +52,9 @@ class GenreControllerTest {
     @MockBean
     private GenreService genreService;
 
+    @MockBean
+    private SqlBudgetReporter sqlBudgetReporter;
+
     @Test
     void returnAllGenres() throws Exception {
 
@@ -54,6 +67,21 @@ class GenreControllerTest {
 
     }
 
+    @Test
+    void givenCurrentEtagThenReturnNotModifiedWithoutLoading() throws Exception {
+
+        //Arrange
+        when(genreService.getAllGenres()).thenReturn(List.of(GenreResponseDto.builder().id(1L).name("Comedy").build()));
+        String etag = mockMvc.perform(get("/genre/all"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //Act&Assert
+        mockMvc.perform(get("/genre/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(genreService, times(1)).getAllGenres();
+    }
+
     @Test
     void givenValidIdAndThenReturnSuccess() throws Exception {
 
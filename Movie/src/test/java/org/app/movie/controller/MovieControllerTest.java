@@ -1,28 +1,65 @@
 package org.app.movie.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import org.app.movie.dto.request.MovieRequestDto;
 import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.dto.response.BulkDeleteResponseDto;
+import org.app.movie.dto.response.BulkDeleteResultDto;
+import org.app.movie.dto.response.BulkItemStatus;
+import org.app.movie.dto.response.BulkMovieResponseDto;
+import org.app.movie.dto.response.BulkMovieResultDto;
+import org.app.movie.dto.response.MoviePageResponseDto;
+import org.app.movie.dto.response.MovieFacetsDto;
 import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.dto.response.MovieSearchResponseDto;
+import org.app.movie.event.MovieChangedEvent;
+import org.app.movie.exception.GenresNotFoundException;
+import org.app.movie.exception.WriteQueueFullException;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.format.ProtobufSchemas;
+import org.app.movie.format.ResponseEncoder;
+import org.app.movie.service.CatalogVersionService;
+import org.app.movie.service.SerializedResponseCache;
+import org.app.movie.service.MovieBulkService;
 import org.app.movie.service.MovieService;
+import org.app.movie.service.MovieWriteCoalescer;
+import org.app.movie.sql.SqlBudgetReporter;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 @WebMvcTest(MovieController.class)
+@Import({CatalogVersionService.class, SerializedResponseCache.class, ResponseEncoder.class, MovieProperties.class})
 class MovieControllerTest {
 
 
@@ -32,6 +69,18 @@ class MovieControllerTest {
     @MockBean
     private MovieService MovieService;
 
+    @MockBean
+    private MovieBulkService movieBulkService;
+
+    @MockBean
+    private MovieWriteCoalescer movieWriteCoalescer;
+
+    @MockBean
+    private SqlBudgetReporter sqlBudgetReporter;
+
+    @Autowired
+    private CatalogVersionService catalogVersionService;
+
     @Test
     void returnAllMovies() throws Exception {
 
@@ -43,11 +92,208 @@ class MovieControllerTest {
                 director("Lionel Wigram").
                 imdb("7.6").build();
 
-        when(MovieService.getAllMovies()).thenReturn(List.of(dto));
+        MoviePageResponseDto page = MoviePageResponseDto.builder().movies(List.of(dto)).nextCursor(1L).build();
+
+        when(MovieService.getAllMovies(anyLong(), anyInt())).thenReturn(page);
+
+        //Act&Assert
+        mockMvc.perform(get("/movie/all").param("after", "0").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("movies[0].title").value("Sherlock Holmes"))
+                .andExpect(jsonPath("nextCursor").value(1L));
+
+    }
+
+    @Test
+    void givenGenreSetsThenReturnMatchingPage() throws Exception {
+
+        //Arrange
+        MovieResponsetDto dto = MovieResponsetDto.builder().
+                id(1L).
+                title("Sherlock Holmes").
+                year(2009).
+                director("Lionel Wigram").
+                genre("action,comedy").
+                imdb("7.6").build();
+
+        when(MovieService.getByGenres(List.of("action", "comedy"), List.of(), List.of("horror"), 0L, 100))
+                .thenReturn(MoviePageResponseDto.builder().movies(List.of(dto)).build());
+
+        //Act&Assert
+        mockMvc.perform(get("/movie/genres").param("all", "action,comedy").param("none", "horror"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("movies[0].genre").value("action,comedy"));
+    }
+
+    @Test
+    void givenWarmCacheAndGzipThenServeCompressedBytesWithoutLoading() throws Exception {
+
+        //Arrange
+        List<MovieResponsetDto> movies = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> MovieResponsetDto.builder().id(id).title("Sherlock Holmes").director("Guy Ritchie").build())
+                .toList();
+        when(MovieService.getAllMovies(0L, 20)).thenReturn(MoviePageResponseDto.builder().movies(movies).build());
 
         //Act&Assert
-        mockMvc.perform(get("/movie/all")).andExpect(status().isOk());
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/movie/all").param("limit", "20").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                    .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING));
+        }
+        mockMvc.perform(get("/movie/all").param("limit", "20"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(jsonPath("movies[19].id").value(20));
+        verify(MovieService, times(1)).getAllMovies(0L, 20);
+    }
+
+    @Test
+    void givenGzipRefusedByQualityThenServeIdentityBytes() throws Exception {
+
+        //Arrange
+        List<MovieResponsetDto> movies = LongStream.rangeClosed(1, 20)
+                .mapToObj(id -> MovieResponsetDto.builder().id(id).title("Sherlock Holmes").director("Guy Ritchie").build())
+                .toList();
+        when(MovieService.getAllMovies(0L, 20)).thenReturn(MoviePageResponseDto.builder().movies(movies).build());
 
+        //Act&Assert
+        for (String acceptEncoding : List.of("gzip;q=0, deflate", "deflate, *;q=0", "GZIP; Q=0.0", "gzip;q=oops")) {
+            mockMvc.perform(get("/movie/all").param("limit", "20").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        }
+        mockMvc.perform(get("/movie/all").param("limit", "20").header(HttpHeaders.ACCEPT_ENCODING, "br, *;q=0.5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+    }
+
+    @Test
+    void givenOutOfRangeImdbBoundThenRejectDeleteByFilter() throws Exception {
+
+        //Act&Assert
+        mockMvc.perform(post("/movie/bulk/delete/filter").contentType(MediaType.APPLICATION_JSON).content("{\"maxImdb\":-1}"))
+                .andExpect(status().isBadRequest());
+        verify(movieBulkService, times(0)).deleteMovies(any(MovieSearchRequest.class));
+    }
+
+    @Test
+    void givenCurrentEtagThenReturnNotModifiedWithoutLoading() throws Exception {
+
+        //Arrange
+        String etag = mockMvc.perform(get("/movie/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //Act&Assert
+        mockMvc.perform(get("/movie/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(MovieService, times(1)).getMovie(1L);
+
+        catalogVersionService.onMovieChanged(MovieChangedEvent.deleted(1L));
+        mockMvc.perform(get("/movie/1").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        verify(MovieService, times(2)).getMovie(1L);
+    }
+
+    @Test
+    void givenCborAcceptThenEncodeMovieAsCborWithOwnEtag() throws Exception {
+
+        //Arrange
+        MovieResponsetDto dto = MovieResponsetDto.builder().id(1L).title("Sherlock Holmes").year(2009).imdb("7.6").build();
+        when(MovieService.getMovie(1L)).thenReturn(dto);
+        String jsonEtag = mockMvc.perform(get("/movie/1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        //Act
+        MvcResult result = mockMvc.perform(get("/movie/1").header(HttpHeaders.ACCEPT, "application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn();
+
+        //Assert
+        assertThat(new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), MovieResponsetDto.class)).isEqualTo(dto);
+        assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(jsonEtag);
+        mockMvc.perform(get("/movie/1").header(HttpHeaders.ACCEPT, "application/cbor").header(HttpHeaders.IF_NONE_MATCH, jsonEtag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void givenSmileAcceptThenServeCachedPageAsSmile() throws Exception {
+
+        //Arrange
+        MovieResponsetDto dto = MovieResponsetDto.builder().id(1L).title("Sherlock Holmes").director("Guy Ritchie").build();
+        when(MovieService.getAllMovies(0L, 5)).thenReturn(MoviePageResponseDto.builder().movies(List.of(dto)).build());
+
+        //Act
+        byte[] smile = mockMvc.perform(get("/movie/all").param("limit", "5").header(HttpHeaders.ACCEPT, "application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        //Assert
+        assertThat(new SmileMapper().readTree(smile).at("/movies/0/title").asText()).isEqualTo("Sherlock Holmes");
+        mockMvc.perform(get("/movie/all").param("limit", "5"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("movies[0].id").value(1));
+    }
+
+    @Test
+    void givenProtobufAcceptThenEncodeSearchResultAsMovieList() throws Exception {
+
+        //Arrange
+        List<MovieResponsetDto> movies = List.of(
+                MovieResponsetDto.builder().id(1L).title("Sherlock Holmes").director("Guy Ritchie").year(2009).genre("detective").imdb("7.6").build(),
+                MovieResponsetDto.builder().id(2L).title("Snatch").director("Guy Ritchie").year(2000).imdb("8.2").build());
+        when(MovieService.searchMovie(any())).thenReturn(movies);
+
+        //Act
+        byte[] protobuf = mockMvc.perform(post("/movie/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"director\":\"Guy Ritchie\"}")
+                        .header(HttpHeaders.ACCEPT, "application/x-protobuf"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-protobuf"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        //Assert
+        assertThat(new ProtobufSchemas().readList(protobuf, MovieResponsetDto.class)).isEqualTo(movies);
+    }
+
+    @Test
+    void givenProtobufOnlyAcceptForBulkResponseThenReturnNotAcceptable() throws Exception {
+
+        //Arrange
+        when(movieBulkService.deleteMovies(List.of(1L))).thenReturn(BulkDeleteResponseDto.builder().total(1).build());
+
+        //Act&Assert
+        mockMvc.perform(post("/movie/bulk/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1]")
+                        .header(HttpHeaders.ACCEPT, "application/x-protobuf"))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    @Test
+    void exportMoviesAsNdjson() throws Exception {
+
+        //Arrange
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(0);
+            out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(MovieService).exportMovies(any());
+
+        //Act&Assert
+        MvcResult result = mockMvc.perform(get("/movie/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n"));
     }
 
     @Test
@@ -96,6 +342,116 @@ class MovieControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    void givenCoalescingEnabledThenCreateThroughWriteQueue() throws Exception {
+
+        //Arrange
+        MovieRequestDto dto = MovieRequestDto.builder().genres("Detective").title("Sherlock Holmes").year(2009)
+                .director("Lionel Wigram").imdb("7.6").build();
+        when(movieWriteCoalescer.isEnabled()).thenReturn(true);
+        when(movieWriteCoalescer.addMovie(any())).thenReturn(7L);
+
+        //Act&Assert
+        mockMvc.perform(post("/movie")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(dto)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(HttpHeaders.LOCATION, "movie/7"));
+        verify(MovieService, times(0)).addMovie(any());
+    }
+
+    @Test
+    void givenFullWriteQueueThenReturnTooManyRequests() throws Exception {
+
+        //Arrange
+        MovieRequestDto dto = MovieRequestDto.builder().genres("Detective").title("Sherlock Holmes").year(2009)
+                .director("Lionel Wigram").imdb("7.6").build();
+        when(movieWriteCoalescer.isEnabled()).thenReturn(true);
+        when(movieWriteCoalescer.addMovie(any())).thenThrow(new WriteQueueFullException("Movie write queue is full"));
+
+        //Act&Assert
+        mockMvc.perform(post("/movie")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(dto)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("code").value(429));
+    }
+
+    @Test
+    void givenListOfMoviesThenAddInBulkAndReturnResultPerItem() throws Exception {
+        // Arrange
+
+        MovieRequestDto dto = MovieRequestDto.builder().
+                genres("Detective").
+                title("Sherlock Holmes").
+                year(2009).
+                director("Lionel Wigram").
+                imdb("7.6").build();
+
+        BulkMovieResponseDto response = BulkMovieResponseDto.builder().
+                total(1).
+                created(1).
+                results(List.of(BulkMovieResultDto.builder().index(0).id(1L).status(BulkItemStatus.CREATED).build())).
+                build();
+
+        when(movieBulkService.addMovies(any())).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/movie/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(List.of(dto))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("created").value(1))
+                .andExpect(jsonPath("results[0].id").value(1L))
+                .andExpect(jsonPath("results[0].status").value("CREATED"));
+    }
+
+    @Test
+    void deleteMoviesAndThenReturnStatusPerId() throws Exception {
+        // Arrange
+        BulkDeleteResponseDto response = BulkDeleteResponseDto.builder().
+                total(2).
+                deleted(1).
+                notFound(1).
+                results(List.of(BulkDeleteResultDto.builder().id(1L).status(BulkItemStatus.DELETED).build(),
+                        BulkDeleteResultDto.builder().id(2L).status(BulkItemStatus.NOT_FOUND).build())).
+                build();
+
+        when(movieBulkService.deleteMovies(List.of(1L, 2L))).thenReturn(response);
+
+        // Act & Assert
+        mockMvc.perform(post("/movie/bulk/delete")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,2]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("deleted").value(1))
+                .andExpect(jsonPath("results[1].status").value("NOT_FOUND"));
+    }
+
+    @Test
+    void givenUnknownGenresAndThenReturnNotFoundWithEveryName() throws Exception {
+        // Arrange
+
+        MovieRequestDto dto = MovieRequestDto.builder().
+                genres("Detective, Western").
+                title("Sherlock Holmes").
+                year(2009).
+                director("Lionel Wigram").
+                imdb("7.6").build();
+
+        when(MovieService.addMovie(any())).thenThrow(new GenresNotFoundException(List.of("detective", "western")));
+
+        // Act & Assert
+        mockMvc.perform(post("/movie")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(new ObjectMapper().writeValueAsString(dto)))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("detail").value("GENRE NOT FOUND: detective, western"))
+                .andExpect(jsonPath("data.detective").value("Genre not found"))
+                .andExpect(jsonPath("data.western").value("Genre not found"));
+    }
+
     @Test
     void givenValidIdThenChangeAndReturnSuccess() throws Exception {
         // Arrange
@@ -161,4 +517,31 @@ class MovieControllerTest {
                 .andExpect(status().isOk());
     }
 
-}
\ No newline at end of file
+    @Test
+    void searchMoviesWithFacetsAndThenReturnCountsNextToMovies() throws Exception {
+
+        // Arrange
+        MovieResponsetDto dto = MovieResponsetDto.builder().
+                id(1L).
+                title("Sherlock Holmes").
+                year(2009).
+                genre("detective").
+                imdb("7.6").build();
+        MovieFacetsDto facets = MovieFacetsDto.builder().
+                genres(Map.of("detective", 1L)).
+                decades(Map.of(2000, 1L)).
+                ratings(Map.of(7, 1L)).build();
+        when(MovieService.searchMovieWithFacets(any())).thenReturn(new MovieSearchResponseDto(List.of(dto), facets));
+
+        // Act & Assert
+        mockMvc.perform(post("/movie/search").param("facets", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"director\":\"Guy Ritchie\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("movies[0].id").value(1))
+                .andExpect(jsonPath("facets.genres.detective").value(1))
+                .andExpect(jsonPath("facets.decades.2000").value(1))
+                .andExpect(jsonPath("facets.ratings.7").value(1));
+        verify(MovieService, times(0)).searchMovie(any());
+    }
+}
@@ -0,0 +1,105 @@
+package org.app.movie.controller;
+
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.exception.NotFoundException;
+import org.app.movie.format.ResponseEncoder;
+import org.app.movie.service.ReactiveMovieService;
+import org.app.movie.sql.SqlBudgetReporter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReactiveMovieController.class)
+@Import(ResponseEncoder.class)
+class ReactiveMovieControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveMovieService reactiveMovieService;
+
+    @MockBean
+    private SqlBudgetReporter sqlBudgetReporter;
+
+    private final MovieResponsetDto first = new MovieResponsetDto(1L, "Sherlock Holmes", "Guy Ritchie", 2009, "detective", "7.6");
+    private final MovieResponsetDto second = new MovieResponsetDto(2L, "Enola Holmes", "Harry Bradbeer", 2020, "detective", "6.6");
+
+    @Test
+    void returnAllMoviesAsNdjsonStream() throws Exception {
+
+        //Arrange
+        when(reactiveMovieService.getAllMovies(0L, 100)).thenReturn(Flux.just(first, second));
+
+        //Act
+        MvcResult result = mockMvc.perform(get("/reactive/movie/all").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"Sherlock Holmes\"")))
+                .andExpect(content().string(containsString("}\n{\"id\":2")));
+    }
+
+    @Test
+    void returnAllMoviesAsJsonArray() throws Exception {
+
+        //Arrange
+        when(reactiveMovieService.getAllMovies(0L, 100)).thenReturn(Flux.just(first, second));
+
+        //Act
+        MvcResult result = mockMvc.perform(get("/reactive/movie/all").accept(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].title").value("Enola Holmes"));
+    }
+
+    @Test
+    void givenOutOfRangeImdbBoundThenReturnBadRequest() throws Exception {
+
+        //Act&Assert
+        mockMvc.perform(post("/reactive/movie/search").contentType(MediaType.APPLICATION_JSON).content("{\"minImdb\":11}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(reactiveMovieService);
+    }
+
+    @Test
+    void givenUnknownIdThenReturnNotFound() throws Exception {
+
+        //Arrange
+        when(reactiveMovieService.getMovie(9L)).thenReturn(Mono.error(new NotFoundException("Movie")));
+
+        //Act
+        MvcResult result = mockMvc.perform(get("/reactive/movie/9"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //Assert
+        mockMvc.perform(asyncDispatch(result)).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,83 @@
+package org.app.movie.format;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.app.movie.dto.response.GenreResponseDto;
+import org.app.movie.dto.response.MoviePageResponseDto;
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.dto.response.BulkDeleteResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResponseEncoderTest {
+
+    private final ResponseEncoder responseEncoder = new ResponseEncoder(new ObjectMapper());
+
+    @Test
+    void negotiateAndThenPreferQualityAndFallBackToJson() {
+        assertThat(ResponseFormat.negotiate(null)).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("*/*")).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("application/xml")).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("not a media type")).isEqualTo(ResponseFormat.JSON);
+        assertThat(ResponseFormat.negotiate("application/cbor")).isEqualTo(ResponseFormat.CBOR);
+        assertThat(ResponseFormat.negotiate("application/json;q=0.5, application/x-protobuf")).isEqualTo(ResponseFormat.PROTOBUF);
+        assertThat(ResponseFormat.negotiate("*/*, application/x-jackson-smile")).isEqualTo(ResponseFormat.SMILE);
+        assertThat(ResponseFormat.negotiate("application/cbor;q=0, */*")).isEqualTo(ResponseFormat.JSON);
+    }
+
+    @Test
+    void encodeEveryFormatAndThenDecodeSameMovies() throws Exception {
+
+        //Arrange
+        List<MovieResponsetDto> movies = movies(100);
+
+        //Act&Assert
+        for (ResponseFormat format : List.of(ResponseFormat.JSON, ResponseFormat.CBOR, ResponseFormat.SMILE)) {
+            byte[] encoded = responseEncoder.encode(format, movies);
+            assertThat(responseEncoder.objectMapper(format).readerForListOf(MovieResponsetDto.class).<List<MovieResponsetDto>>readValue(encoded))
+                    .as(format.name()).isEqualTo(movies);
+        }
+        byte[] protobuf = responseEncoder.encode(ResponseFormat.PROTOBUF, movies);
+        assertThat(responseEncoder.protobufSchemas().readList(protobuf, MovieResponsetDto.class)).isEqualTo(movies);
+        assertThat(protobuf.length).isLessThan(responseEncoder.encode(ResponseFormat.JSON, movies).length / 2);
+    }
+
+    @Test
+    void encodeProtobufPageAndGenresAndThenKeepOptionalFieldsEmpty() throws Exception {
+
+        //Arrange
+        MoviePageResponseDto page = MoviePageResponseDto.builder().movies(movies(3)).build();
+
+        //Act
+        byte[] encodedPage = responseEncoder.encode(ResponseFormat.PROTOBUF, page);
+        byte[] encodedGenres = responseEncoder.encode(ResponseFormat.PROTOBUF, List.of(GenreResponseDto.builder().id(1L).name("drama").build()));
+
+        //Assert
+        assertThat(responseEncoder.protobufSchemas().readList(encodedGenres, GenreResponseDto.class))
+                .extracting("name").containsExactly("drama");
+        assertThat(responseEncoder.encode(ResponseFormat.PROTOBUF, List.of())).isEmpty();
+        assertThat(responseEncoder.protobufSchemas().read(responseEncoder.encode(ResponseFormat.PROTOBUF, page.getMovies().get(0)),
+                MovieResponsetDto.class)).isEqualTo(page.getMovies().get(0));
+        assertThat(encodedPage).isNotEmpty();
+    }
+
+    @Test
+    void supportsAndThenOfferProtobufOnlyForReadShapes() {
+        ProtobufSchemas protobufSchemas = responseEncoder.protobufSchemas();
+        assertThat(protobufSchemas.supports(MoviePageResponseDto.class)).isTrue();
+        assertThat(protobufSchemas.supports(BulkDeleteResponseDto.class)).isFalse();
+        assertThatThrownBy(() -> responseEncoder.encode(ResponseFormat.PROTOBUF, BulkDeleteResponseDto.builder().build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<MovieResponsetDto> movies(int size) {
+        return LongStream.rangeClosed(1, size)
+                .mapToObj(id -> new MovieResponsetDto(id, "Movie title " + id, "Director " + id % 10, 1950 + (int) id % 70,
+                        id % 3 == 0 ? null : "drama,comedy", (1 + id % 9) + "." + id % 10))
+                .toList();
+    }
+}
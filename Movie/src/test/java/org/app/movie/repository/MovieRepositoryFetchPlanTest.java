@@ -0,0 +1,88 @@
+package org.app.movie.repository;
+
+import org.app.movie.model.Genre;
+import org.app.movie.model.Movie;
+import org.app.movie.service.MovieService;
+import org.app.movie.sql.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// statement counts of the read paths behind the @SqlBudget endpoints; a lazy association sneaking into one of
+// these projections shows up here as extra statements. skipped when no Docker daemon is available
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class MovieRepositoryFetchPlanTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private GenreRepository genreRepository;
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private List<Long> ids;
+    private Genre drama;
+
+    @BeforeEach
+    public void setUp() {
+        Genre detective = genreRepository.save(Genre.builder().name("detective").build());
+        drama = genreRepository.save(Genre.builder().name("drama").build());
+        ids = movieRepository.saveAll(List.of(
+                movie("Sherlock Holmes", 2009, detective, drama),
+                movie("Sherlock Holmes 2", 2011, detective),
+                movie("Enola Holmes", 2020, detective, drama),
+                movie("Snatch", 2000))).stream().map(Movie::getId).toList();
+        testEntityManager.flush();
+        testEntityManager.clear();
+    }
+
+    @Test
+    void readProjectionsAndThenIssueOneStatementEach() {
+        assertThat(statements(() -> movieRepository.findDtoById(ids.get(0)))).isEqualTo(1);
+        assertThat(statements(() -> movieRepository.findPageAfter(0L, Limit.of(10)))).isEqualTo(1);
+        assertThat(statements(() -> movieRepository.findPageByGenreAfter("drama", 0L, Limit.of(10)))).isEqualTo(1);
+        assertThat(statements(() -> movieRepository.findDtosByIds(ids))).isEqualTo(1);
+        assertThat(statements(() -> movieRepository.findDtos(
+                MovieService.specGenres(List.of(drama.getId()), List.of(), List.of(), 0L), Limit.of(10)))).isEqualTo(1);
+    }
+
+    @Test
+    void touchLazyGenresPerMovieAndThenFlagRepeatedSelect() {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open("findAllById")) {
+            movieRepository.findAllById(ids).forEach(movie -> movie.getGenres().size());
+
+            assertThat(scope.count()).isEqualTo(1 + ids.size());
+            assertThat(scope.repeatedSelects(ids.size())).hasSize(1);
+        }
+    }
+
+    private static int statements(Supplier<?> query) {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open("query")) {
+            query.get();
+            return scope.count();
+        }
+    }
+
+    private Movie movie(String title, int year, Genre... genres) {
+        return Movie.builder().title(title).director("Guy Ritchie").year(year).imdb("7.5").genres(List.of(genres)).build();
+    }
+}
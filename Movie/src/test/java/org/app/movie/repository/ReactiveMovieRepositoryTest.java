@@ -0,0 +1,112 @@
+package org.app.movie.repository;
+
+import io.r2dbc.spi.ConnectionFactories;
+import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.model.Genre;
+import org.app.movie.model.Movie;
+import org.app.movie.service.MovieService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.Limit;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.containers.PostgreSQLR2DBCDatabaseContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.HashMap;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// runs the R2DBC queries and the JPA projections against the same throwaway Postgres and expects identical rows.
+// skipped when no Docker daemon is available
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class ReactiveMovieRepositoryTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private MovieRepository movieRepository;
+    @Autowired
+    private GenreRepository genreRepository;
+
+    private ReactiveMovieRepository reactiveMovieRepository;
+
+    @BeforeEach
+    public void setUp() {
+        reactiveMovieRepository = new ReactiveMovieRepository(
+                DatabaseClient.create(ConnectionFactories.get(PostgreSQLR2DBCDatabaseContainer.getOptions(postgres))));
+        if (movieRepository.count() > 0) {
+            return;
+        }
+        Genre detective = genreRepository.save(Genre.builder().name("detective").build());
+        Genre drama = genreRepository.save(Genre.builder().name("drama").build());
+        movieRepository.saveAll(List.of(
+                movie("Sherlock Holmes", "Guy Ritchie", 2009, "7.6", detective, drama),
+                movie("Sherlock Holmes 2", "Guy Ritchie", 2011, "7.5", detective),
+                movie("Enola Holmes", "Harry Bradbeer", 2020, "6.6", detective),
+                movie("Snatch", "Guy Ritchie", 2000, "8.2")));
+    }
+
+    @Test
+    void searchAndThenMatchSpecMovieForEveryFilterShape() {
+        List<MovieSearchRequest> requests = List.of(
+                MovieSearchRequest.builder().build(),
+                MovieSearchRequest.builder().director("Guy Ritchie").build(),
+                MovieSearchRequest.builder().title("Enola Holmes").build(),
+                MovieSearchRequest.builder().beginyear(2005).build(),
+                MovieSearchRequest.builder().endyear(2010).build(),
+                MovieSearchRequest.builder().beginyear(2005).endyear(2015).imdb("7.5").build(),
+                MovieSearchRequest.builder().minImdb(7.5).build(),
+                MovieSearchRequest.builder().director("Guy Ritchie").minImdb(7.0).maxImdb(7.9).build(),
+                MovieSearchRequest.builder().director("Nobody").build());
+
+        for (MovieSearchRequest request : requests) {
+            List<MovieResponsetDto> reactive = reactiveMovieRepository.search(request).collectList().block();
+            assertThat(reactive).as(request.toString()).isEqualTo(movieRepository.findDtos(MovieService.specMovie(request)));
+        }
+    }
+
+    @Test
+    void pagesAndThenMatchJpaProjections() {
+        assertThat(reactiveMovieRepository.findPageAfter(0L, 3).collectList().block())
+                .isEqualTo(movieRepository.findPageAfter(0L, Limit.of(3)));
+        assertThat(reactiveMovieRepository.findPageByGenreAfter("drama", 0L, 10).collectList().block())
+                .isEqualTo(movieRepository.findPageByGenreAfter("drama", 0L, Limit.of(10)));
+        Long id = movieRepository.findPageAfter(0L, Limit.of(1)).get(0).getId();
+        assertThat(reactiveMovieRepository.findDtoById(id).block()).isEqualTo(movieRepository.findDtoById(id).orElseThrow());
+    }
+
+    @Test
+    void searchWhereAndThenBindOnlyGivenFilters() {
+        HashMap<String, Object> bindings = new HashMap<>();
+        String where = ReactiveMovieRepository.searchWhere(MovieSearchRequest.builder().director("Guy Ritchie").endyear(2010).build(), bindings);
+        assertThat(where).isEqualTo("WHERE m.director = :director AND m.year <= :endYear");
+        assertThat(bindings).containsOnlyKeys("director", "endYear");
+    }
+
+    @Test
+    void searchWhereWithImdbRangeAndThenBindScaledScores() {
+        HashMap<String, Object> bindings = new HashMap<>();
+        String where = ReactiveMovieRepository.searchWhere(MovieSearchRequest.builder().minImdb(7.5).maxImdb(9.0).build(), bindings);
+        assertThat(where).isEqualTo("WHERE m.imdb_score >= :minImdbScore AND m.imdb_score <= :maxImdbScore");
+        assertThat(bindings).containsEntry("minImdbScore", (short) 75).containsEntry("maxImdbScore", (short) 90);
+    }
+
+    private Movie movie(String title, String director, int year, String imdb, Genre... genres) {
+        return Movie.builder().title(title).director(director).year(year).imdb(imdb).genres(List.of(genres)).build();
+    }
+}
@@ -0,0 +1,230 @@
+package org.app.movie.search;
+
+import jakarta.persistence.EntityManager;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.dto.response.MovieSearchResponseDto;
+import org.app.movie.event.GenreChangedEvent;
+import org.app.movie.event.MovieChangedEvent;
+import org.app.movie.model.Genre;
+import org.app.movie.model.Movie;
+import org.app.movie.repository.GenreRepository;
+import org.app.movie.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ColumnarMovieIndexTest {
+
+    @InjectMocks
+    private ColumnarMovieIndex columnarMovieIndex;
+    @Mock
+    private MovieRepository movieRepository;
+    @Mock
+    private GenreRepository genreRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private MovieProperties movieProperties = new MovieProperties();
+
+    private Genre detective;
+    private Genre drama;
+
+    @BeforeEach
+    public void setUp() {
+        movieProperties.getSearch().setEngine(MovieProperties.Search.Engine.MEMORY);
+        detective = Genre.builder().id(1L).name("detective").build();
+        drama = Genre.builder().id(2L).name("drama").build();
+    }
+
+    @Test
+    void loadAndThenFilterByYearRangeInIdOrder() {
+
+        //Arrange
+        load(movie(2L, "Enola Holmes", "Harry Bradbeer", 2020, "6.6", detective),
+                movie(1L, "Sherlock Holmes", "Guy Ritchie", 2009, "7.6", detective, drama),
+                movie(3L, "Sherlock Holmes 2", "Guy Ritchie", 2011, "7.5", detective));
+
+        //Act
+        List<MovieResponsetDto> result = columnarMovieIndex.search(MovieSearchRequest.builder().beginyear(2009).endyear(2011).build());
+
+        //Assert
+        assertThat(columnarMovieIndex.isReady()).isTrue();
+        assertThat(result).extracting("id").containsExactly(1L, 3L);
+        assertThat(result.get(0).getGenre()).isEqualTo("detective,drama");
+        assertThat(result.get(0).getImdb()).isEqualTo("7.6");
+        verify(entityManager, times(3)).detach(any(Movie.class));
+    }
+
+    @Test
+    void searchByDirectorAndImdbAndThenMatchExactly() {
+
+        //Arrange
+        load(movie(1L, "Sherlock Holmes", "Guy Ritchie", 2009, "7.6", detective),
+                movie(2L, "Sherlock Holmes 2", "Guy Ritchie", 2011, "7.5", detective),
+                movie(3L, "Snatch", "Guy Ritchie", 2000, "7", detective));
+
+        //Act
+        List<MovieResponsetDto> result = columnarMovieIndex.search(MovieSearchRequest.builder().director("Guy Ritchie").imdb("7.5").build());
+        List<MovieResponsetDto> unknown = columnarMovieIndex.search(MovieSearchRequest.builder().director("Nobody").build());
+        List<MovieResponsetDto> otherSpelling = columnarMovieIndex.search(MovieSearchRequest.builder().imdb("7.0").build());
+
+        //Assert
+        assertThat(result).extracting("title").containsExactly("Sherlock Holmes 2");
+        assertThat(unknown).isEmpty();
+        assertThat(otherSpelling).isEmpty();
+    }
+
+    @Test
+    void searchWithFacetsAndThenCountMatchedRowsOnly() {
+
+        //Arrange
+        load(movie(1L, "Sherlock Holmes", "Guy Ritchie", 2009, "7.6", detective, drama),
+                movie(2L, "Sherlock Holmes 2", "Guy Ritchie", 2011, "7.5", detective),
+                movie(3L, "Snatch", "Guy Ritchie", 2000, "8.2"),
+                movie(4L, "Enola Holmes", "Harry Bradbeer", 2020, "6.6", detective));
+
+        //Act
+        MovieSearchResponseDto result = columnarMovieIndex.searchWithFacets(MovieSearchRequest.builder().director("Guy Ritchie").build());
+
+        //Assert
+        assertThat(result.getMovies()).extracting("id").containsExactly(1L, 2L, 3L);
+        assertThat(result.getFacets().getGenres()).containsExactly(Map.entry("detective", 2L), Map.entry("drama", 1L));
+        assertThat(result.getFacets().getDecades()).containsExactly(Map.entry(2000, 2L), Map.entry(2010, 1L));
+        assertThat(result.getFacets().getRatings()).containsExactly(Map.entry(7, 2L), Map.entry(8, 1L));
+    }
+
+    @Test
+    void searchByImdbRangeAndThenSkipUnratedMovies() {
+
+        //Arrange
+        load(movie(1L, "Sherlock Holmes", "Guy Ritchie", 2009, "7.6", detective),
+                movie(2L, "Sherlock Holmes 2", "Guy Ritchie", 2011, "7.5", detective),
+                movie(3L, "Snatch", "Guy Ritchie", 2000, "8.2"),
+                movie(4L, "Untitled", "Guy Ritchie", 2025, null));
+
+        //Act
+        List<MovieResponsetDto> atLeast = columnarMovieIndex.search(MovieSearchRequest.builder().minImdb(7.6).build());
+        List<MovieResponsetDto> between = columnarMovieIndex.search(MovieSearchRequest.builder().minImdb(7.0).maxImdb(7.9).build());
+
+        //Assert
+        assertThat(atLeast).extracting("id").containsExactly(1L, 3L);
+        assertThat(between).extracting("id").containsExactly(1L, 2L);
+    }
+
+    @Test
+    void applyChangeEventsAndThenReflectThemInSearch() {
+
+        //Arrange
+        load(movie(1L, "Sherlock Holmes", "Guy Ritchie", 2009, "7.6", detective));
+
+        //Act
+        columnarMovieIndex.onMovieChanged(MovieChangedEvent.saved(movie(2L, "Enola Holmes", "Harry Bradbeer", 2020, "6.6", drama)));
+        columnarMovieIndex.onMovieChanged(MovieChangedEvent.saved(movie(1L, "Sherlock Holmes", "Guy Ritchie", 2010, "7.6", detective)));
+        columnarMovieIndex.onMovieChanged(MovieChangedEvent.deleted(2L));
+        columnarMovieIndex.onGenreChanged(new GenreChangedEvent(GenreChangedEvent.Type.SAVED, 1L, "mystery"));
+
+        //Assert
+        List<MovieResponsetDto> result = columnarMovieIndex.search(MovieSearchRequest.builder().build());
+        assertThat(result).extracting("id").containsExactly(1L);
+        assertThat(result.get(0).getYear()).isEqualTo(2010);
+        assertThat(result.get(0).getGenre()).isEqualTo("mystery");
+        assertThat(columnarMovieIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    void deleteAndUpdateManyAndThenCompactRowsAndDictionaries() {
+
+        //Arrange
+        load(IntStream.rangeClosed(1, 1_000)
+                .mapToObj(id -> movie((long) id, "Movie " + id, "Director " + id, 2000, "7.0", drama))
+                .toArray(Movie[]::new));
+
+        //Act
+        IntStream.rangeClosed(1, 400).forEach(id -> columnarMovieIndex.onMovieChanged(MovieChangedEvent.deleted((long) id)));
+        IntStream.rangeClosed(401, 1_000).forEach(id -> columnarMovieIndex.onMovieChanged(
+                MovieChangedEvent.saved(movie((long) id, "Renamed " + id, "Director " + id, 2001, "8.0", drama))));
+
+        //Assert
+        assertThat(columnarMovieIndex.size()).isEqualTo(600);
+        assertThat(columnarMovieIndex.rowCount()).isLessThan(1_000);
+        List<MovieResponsetDto> result = columnarMovieIndex.search(MovieSearchRequest.builder().title("Renamed 500").build());
+        assertThat(result).extracting("id").containsExactly(500L);
+        assertThat(result.get(0).getImdb()).isEqualTo("8.0");
+        assertThat(columnarMovieIndex.search(MovieSearchRequest.builder().title("Movie 900").build())).isEmpty();
+        assertThat(columnarMovieIndex.search(MovieSearchRequest.builder().beginyear(2000).build())).hasSize(600);
+    }
+
+    @Test
+    void searchAboveParallelThresholdAndThenMatchSequentialScan() {
+
+        //Arrange
+        movieProperties.getSearch().setParallelThreshold(100);
+        load(IntStream.rangeClosed(1, 5_000)
+                .mapToObj(id -> movie((long) id, "Movie " + id, "Director " + id % 7, 1950 + id % 70, "7.0", drama))
+                .toArray(Movie[]::new));
+
+        //Act
+        List<MovieResponsetDto> result = columnarMovieIndex.search(MovieSearchRequest.builder().director("Director 3").beginyear(2000).build());
+
+        //Assert
+        long expected = IntStream.rangeClosed(1, 5_000).filter(id -> id % 7 == 3 && 1950 + id % 70 >= 2000).count();
+        assertThat(result).hasSize((int) expected);
+        assertThat(result).extracting("id").isSorted();
+    }
+
+    @Test
+    void disabledEngineAndThenNeverLoad() {
+
+        //Arrange
+        movieProperties.getSearch().setEngine(MovieProperties.Search.Engine.JPA);
+
+        //Act
+        columnarMovieIndex.load();
+
+        //Assert
+        assertThat(columnarMovieIndex.isReady()).isFalse();
+        verifyNoInteractions(movieRepository, transactionTemplate);
+    }
+
+    @Test
+    void supportsAndThenLeaveTextQueriesToDatabase() {
+        assertThat(columnarMovieIndex.supports(MovieSearchRequest.builder().imdb("7.6").build())).isTrue();
+        assertThat(columnarMovieIndex.supports(MovieSearchRequest.builder().imdb("N/A").build())).isTrue();
+        assertThat(columnarMovieIndex.supports(MovieSearchRequest.builder().query("holmes").build())).isFalse();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void load(Movie... movies) {
+        when(genreRepository.findAll()).thenReturn(List.of(detective, drama));
+        when(movieRepository.streamAll()).thenReturn(Stream.of(movies));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        columnarMovieIndex.load();
+    }
+
+    private Movie movie(Long id, String title, String director, int year, String imdb, Genre... genres) {
+        return Movie.builder().id(id).title(title).director(director).year(year).imdb(imdb).genres(List.of(genres)).build();
+    }
+}
@@ -0,0 +1,107 @@
+package org.app.movie.search;
+
+import org.app.movie.config.MovieProperties;
+import org.app.movie.event.GenreChangedEvent;
+import org.app.movie.event.MovieChangedEvent;
+import org.app.movie.model.Genre;
+import org.app.movie.model.Movie;
+import org.app.movie.repository.MovieGenreLink;
+import org.app.movie.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class GenreBitmapIndexTest {
+
+    private static final Long ACTION = 1L;
+    private static final Long COMEDY = 2L;
+    private static final Long HORROR = 3L;
+
+    @InjectMocks
+    private GenreBitmapIndex genreBitmapIndex;
+    @Mock
+    private MovieRepository movieRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Spy
+    private MovieProperties movieProperties = new MovieProperties();
+
+    @BeforeEach
+    public void setUp() {
+        // 1: action+comedy, 2: action, 3: action+comedy+horror, 4: comedy, 5: no genres
+        load(new MovieGenreLink(1L, ACTION), new MovieGenreLink(1L, COMEDY),
+                new MovieGenreLink(2L, ACTION),
+                new MovieGenreLink(3L, ACTION), new MovieGenreLink(3L, COMEDY), new MovieGenreLink(3L, HORROR),
+                new MovieGenreLink(4L, COMEDY),
+                new MovieGenreLink(5L, null));
+    }
+
+    @Test
+    void queryAllAnyNoneAndThenCombineSets() {
+        assertThat(genreBitmapIndex.isReady()).isTrue();
+        assertThat(genreBitmapIndex.query(List.of(ACTION, COMEDY), List.of(), List.of(HORROR), 0, 10)).containsExactly(1L);
+        assertThat(genreBitmapIndex.query(List.of(), List.of(ACTION, COMEDY), List.of(), 0, 10)).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(genreBitmapIndex.query(List.of(), List.of(), List.of(COMEDY), 0, 10)).containsExactly(2L, 5L);
+        // earlier queries must not have changed the stored bitmaps
+        assertThat(genreBitmapIndex.query(List.of(ACTION), List.of(), List.of(), 0, 10)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    void queryWithCursorAndThenReturnNextIdsUpToLimit() {
+        assertThat(genreBitmapIndex.query(List.of(ACTION), List.of(), List.of(), 1, 1)).containsExactly(2L);
+        assertThat(genreBitmapIndex.query(List.of(ACTION), List.of(), List.of(), 3, 10)).isEmpty();
+    }
+
+    @Test
+    void queryUnknownGenreAndThenReturnNothing() {
+        assertThat(genreBitmapIndex.query(List.of(ACTION, 99L), List.of(), List.of(), 0, 10)).isEmpty();
+    }
+
+    @Test
+    void applyMovieEventsAndThenMoveMovieBetweenGenres() {
+
+        //Act
+        Movie movie = Movie.builder().id(2L).genres(List.of(Genre.builder().id(HORROR).name("horror").build())).build();
+        genreBitmapIndex.onMovieChanged(MovieChangedEvent.saved(movie));
+        genreBitmapIndex.onMovieChanged(MovieChangedEvent.deleted(1L));
+
+        //Assert
+        assertThat(genreBitmapIndex.query(List.of(ACTION), List.of(), List.of(), 0, 10)).containsExactly(3L);
+        assertThat(genreBitmapIndex.query(List.of(HORROR), List.of(), List.of(), 0, 10)).containsExactly(2L, 3L);
+        assertThat(genreBitmapIndex.query(List.of(), List.of(), List.of(), 0, 10)).containsExactly(2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void deleteGenreAndThenDropItsBitmap() {
+
+        //Act
+        genreBitmapIndex.onGenreChanged(new GenreChangedEvent(GenreChangedEvent.Type.DELETED, HORROR, "horror"));
+
+        //Assert
+        assertThat(genreBitmapIndex.query(List.of(HORROR), List.of(), List.of(), 0, 10)).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void load(MovieGenreLink... links) {
+        when(movieRepository.streamGenreLinks()).thenReturn(Stream.of(links));
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        genreBitmapIndex.load();
+    }
+}
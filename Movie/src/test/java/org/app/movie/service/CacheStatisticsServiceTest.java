@@ -0,0 +1,68 @@
+package org.app.movie.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.config.SecondLevelCacheConfig;
+import org.app.movie.dto.response.CacheRegionStatisticsDto;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheStatisticsServiceTest {
+
+    @InjectMocks
+    private CacheStatisticsService cacheStatisticsService;
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+    @Spy
+    private MovieProperties movieProperties = new MovieProperties();
+
+    @Test
+    void getStatisticsWhenCacheDisabledAndThenReturnEmptyList() {
+
+        //Act
+        List<CacheRegionStatisticsDto> result = cacheStatisticsService.getSecondLevelCacheStatistics();
+
+        //Assert
+        assertThat(result).isEmpty();
+        verifyNoInteractions(entityManagerFactory);
+    }
+
+    @Test
+    void getStatisticsWhenCacheEnabledAndThenReturnHitRatioPerRegion() {
+
+        //Arrange
+        movieProperties.getCache().getSecondLevel().setEnabled(true);
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        Statistics statistics = mock(Statistics.class);
+        CacheRegionStatistics genreRegion = mock(CacheRegionStatistics.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getStatistics()).thenReturn(statistics);
+        when(statistics.getCacheRegionStatistics(any())).thenReturn(null);
+        when(statistics.getCacheRegionStatistics(SecondLevelCacheConfig.GENRE_REGION)).thenReturn(genreRegion);
+        when(genreRegion.getHitCount()).thenReturn(3L);
+        when(genreRegion.getMissCount()).thenReturn(1L);
+        when(genreRegion.getPutCount()).thenReturn(1L);
+
+        //Act
+        List<CacheRegionStatisticsDto> result = cacheStatisticsService.getSecondLevelCacheStatistics();
+
+        //Assert
+        assertThat(result).hasSize(1);
+        assertThat(result.get(0).getRegion()).isEqualTo(SecondLevelCacheConfig.GENRE_REGION);
+        assertThat(result.get(0).getHitRatio()).isEqualTo(0.75);
+    }
+}
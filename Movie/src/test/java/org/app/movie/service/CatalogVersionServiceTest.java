@@ -0,0 +1,80 @@
+package org.app.movie.service;
+
+import org.app.movie.dto.response.CatalogVersion;
+import org.app.movie.event.GenreChangedEvent;
+import org.app.movie.event.MovieChangedEvent;
+import org.app.movie.model.Movie;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogVersionServiceTest {
+
+    private final CatalogVersionService catalogVersionService = new CatalogVersionService();
+
+    @Test
+    void movieChangeAndThenBumpOnlyThatMovieAndTheCollection() {
+
+        //Arrange
+        CatalogVersion movies = catalogVersionService.movies();
+        CatalogVersion first = catalogVersionService.movie(1L);
+        CatalogVersion second = catalogVersionService.movie(2L);
+        CatalogVersion genres = catalogVersionService.genres();
+
+        //Act
+        catalogVersionService.onMovieChanged(MovieChangedEvent.saved(Movie.builder().id(1L).genres(List.of()).build()));
+
+        //Assert
+        assertThat(catalogVersionService.movies().etag()).isNotEqualTo(movies.etag());
+        assertThat(catalogVersionService.movie(1L).etag()).isNotEqualTo(first.etag());
+        assertThat(catalogVersionService.movie(1L).lastModified()).isGreaterThanOrEqualTo(first.lastModified());
+        assertThat(catalogVersionService.movie(2L)).isEqualTo(second);
+        assertThat(catalogVersionService.genres()).isEqualTo(genres);
+    }
+
+    @Test
+    void genreChangeAndThenBumpGenresAndEveryMovie() {
+
+        //Arrange
+        CatalogVersion movies = catalogVersionService.movies();
+        CatalogVersion movie = catalogVersionService.movie(1L);
+        CatalogVersion otherGenre = catalogVersionService.genre(2L);
+
+        //Act
+        catalogVersionService.onGenreChanged(new GenreChangedEvent(GenreChangedEvent.Type.SAVED, 1L, "comedy"));
+
+        //Assert
+        assertThat(catalogVersionService.movies().etag()).isNotEqualTo(movies.etag());
+        assertThat(catalogVersionService.movie(1L).etag()).isNotEqualTo(movie.etag());
+        assertThat(catalogVersionService.genre(2L)).isEqualTo(otherGenre);
+    }
+
+    @Test
+    void movieChangesBeyondTrackedIdsAndThenNeverMatchAnOlderTag() {
+
+        //Arrange
+        CatalogVersionService bounded = new CatalogVersionService(10);
+        List<String> before = LongStream.rangeClosed(1, 100).mapToObj(id -> bounded.movie(id).etag()).toList();
+
+        //Act
+        LongStream.rangeClosed(1, 100).forEach(id -> bounded.onMovieChanged(MovieChangedEvent.deleted(id)));
+        List<String> after = LongStream.rangeClosed(1, 100).mapToObj(id -> bounded.movie(id).etag()).toList();
+        bounded.onMovieChanged(MovieChangedEvent.deleted(1L));
+
+        //Assert
+        for (int i = 0; i < before.size(); i++) {
+            assertThat(after.get(i)).isNotEqualTo(before.get(i));
+        }
+        assertThat(bounded.movie(1L).etag()).isNotEqualTo(after.get(0));
+    }
+
+    @Test
+    void newInstanceAndThenNeverReuseTags() throws InterruptedException {
+        CatalogVersion before = catalogVersionService.movies();
+        Thread.sleep(2);
+        assertThat(new CatalogVersionService().movies().etag()).isNotEqualTo(before.etag());
+    }
+}
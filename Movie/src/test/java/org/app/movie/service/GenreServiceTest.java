@@ -1,8 +1,12 @@
 package org.app.movie.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import org.app.movie.dto.response.BulkDeleteResponseDto;
+import org.app.movie.dto.response.BulkItemStatus;
 import org.app.movie.dto.response.GenreResponseDto;
+import org.app.movie.event.GenreChangedEvent;
 import org.app.movie.exception.DataNotDeleteableException;
+import org.app.movie.exception.GenresNotFoundException;
 import org.app.movie.exception.NotFoundException;
 import org.app.movie.mapper.GenreMapper;
 import org.app.movie.model.Genre;
@@ -15,11 +19,15 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.internal.matchers.ThrowableMessageMatcher.hasMessage;
@@ -36,6 +44,10 @@ class GenreServiceTest {
     private GenreRepository genreRepository;
     @Mock
     private GenreMapper genreMapper;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     private Genre genre;
     private GenreResponseDto genreResponseDto;
@@ -117,6 +129,7 @@ class GenreServiceTest {
                 movies(Collections.emptyList()).
                 build();
         when(genreRepository.findById(1L)).thenReturn(Optional.of(delete));
+        when(genreRepository.findIdsInUse(List.of(1L))).thenReturn(List.of());
         when(genreMapper.toDto(delete)).thenReturn(genreResponseDto);
 
         //Arrange
@@ -126,6 +139,7 @@ class GenreServiceTest {
         assertThat(result).isEqualTo(genreResponseDto);
 
         verify(genreRepository, times(1)).findById(1L);
+        verify(genreRepository, times(1)).findIdsInUse(List.of(1L));
         verify(genreRepository, times(1)).delete(delete);
         verify(genreMapper, times(1)).toDto(delete);
         verifyNoMoreInteractions(genreRepository, genreMapper);
@@ -153,15 +167,16 @@ class GenreServiceTest {
 
 
         //Arrange
-        when(genreRepository.findById(anyLong())).thenReturn(Optional.of(genre));
+        when(genreRepository.findById(1L)).thenReturn(Optional.of(genre));
+        when(genreRepository.findIdsInUse(List.of(1L))).thenReturn(List.of(1L));
 
         //Act&Assert
 
-        assertThat(genre.getMovies()).isNotNull();
-        assertThatThrownBy(()-> genreService.deleteGenre(anyLong())).isInstanceOf(DataNotDeleteableException.class)
+        assertThatThrownBy(()-> genreService.deleteGenre(1L)).isInstanceOf(DataNotDeleteableException.class)
         .hasMessage("Cannot delete this genre because there are movies associated with it.");
 
-        verify(genreRepository,times(1)).findById(anyLong());
+        verify(genreRepository,times(1)).findById(1L);
+        verify(genreRepository,times(0)).delete(any());
         verify(genreRepository,times(0)).save(any());
         verify(genreMapper,times(0)).toDto(any());
     }
@@ -211,6 +226,101 @@ class GenreServiceTest {
 
     }
 
+    @Test
+    void findAllByNamesTwiceAndThenHitDatabaseOnce() {
+
+        //Arrange
+        when(genreRepository.findByNameIn(List.of("comedy"))).thenReturn(List.of(genre));
+
+        //Act
+        Genre first = genreService.findAllByNames(List.of("Comedy")).get(0);
+        Genre second = genreService.findAllByNames(List.of("comedy")).get(0);
+
+        //Assert
+        assertThat(first.getId()).isEqualTo(genre.getId());
+        assertThat(second).isSameAs(first);
+        verify(genreRepository,times(1)).findByNameIn(List.of("comedy"));
+    }
+
+    @Test
+    void findAllByNamesUnknownAndThenAskDatabaseAgain() {
+
+        //Arrange
+        when(genreRepository.findByNameIn(any())).thenReturn(List.of());
+
+        //Act&Assert
+        assertThatThrownBy(()-> genreService.findAllByNames(List.of("Unknown"))).isInstanceOf(GenresNotFoundException.class);
+        assertThatThrownBy(()-> genreService.findAllByNames(List.of("Unknown"))).isInstanceOf(GenresNotFoundException.class);
+
+        verify(genreRepository,times(2)).findByNameIn(List.of("unknown"));
+    }
+
+    @Test
+    void findAllByNamesAfterUpdateAndThenReloadFromDatabase() {
+
+        //Arrange
+        Genre stored = Genre.builder().id(1L).name("comedy").build();
+        when(genreRepository.findByNameIn(List.of("comedy"))).thenReturn(List.of(stored));
+        when(genreRepository.findById(1L)).thenReturn(Optional.of(stored));
+        genreService.findAllByNames(List.of("comedy"));
+
+        //Act
+        genreService.updateGenre(1L, "horror");
+        when(genreRepository.findByNameIn(List.of("comedy"))).thenReturn(List.of());
+
+        //Assert
+        assertThatThrownBy(()-> genreService.findAllByNames(List.of("comedy"))).isInstanceOf(GenresNotFoundException.class);
+        verify(genreRepository,times(2)).findByNameIn(List.of("comedy"));
+    }
+
+    @Test
+    void findAllByNamesAndThenLoadOnlyMissesInOneQuery() {
+
+        //Arrange
+        when(genreRepository.findByNameIn(List.of("comedy"))).thenReturn(List.of(genre));
+        genreService.findAllByNames(List.of("comedy"));
+        Genre drama = Genre.builder().id(2L).name("drama").build();
+        Genre horror = Genre.builder().id(3L).name("horror").build();
+        when(genreRepository.findByNameIn(List.of("drama", "horror"))).thenReturn(List.of(horror, drama));
+
+        //Act
+        List<Genre> result = genreService.findAllByNames(List.of("Drama", "Comedy", "Horror", "drama"));
+
+        //Assert
+        assertThat(result).extracting(Genre::getId).containsExactly(2L, 1L, 3L);
+        verify(genreRepository,times(1)).findByNameIn(List.of("drama", "horror"));
+    }
+
+    @Test
+    void findAllByNamesAndThenReportEveryMissingName() {
+
+        //Arrange
+        when(genreRepository.findByNameIn(any())).thenReturn(List.of(genre));
+
+        //Act&Assert
+        assertThatThrownBy(()-> genreService.findAllByNames(List.of("Sci-fi", "Comedy", "Western")))
+                .isInstanceOf(GenresNotFoundException.class)
+                .extracting("names")
+                .isEqualTo(List.of("sci-fi", "western"));
+
+        verify(genreRepository,times(1)).findByNameIn(List.of("sci-fi", "comedy", "western"));
+    }
+
+    @Test
+    void addGenreAndThenFindAllByNamesWithoutDatabase() {
+
+        //Arrange
+        when(genreRepository.save(any(Genre.class))).thenReturn(Genre.builder().id(2L).name("drama").build());
+
+        //Act
+        genreService.addGenre("Drama");
+        Genre result = genreService.findAllByNames(List.of("DRAMA")).get(0);
+
+        //Assert
+        assertThat(result.getId()).isEqualTo(2L);
+        verify(genreRepository,times(0)).findByNameIn(any());
+    }
+
     @Test
     void updateWithIdAndThenThrowsNotFoundException() {
 
@@ -226,4 +336,52 @@ class GenreServiceTest {
         verify(genreRepository,times(0)).save(any());
         verify(genreMapper,times(0)).toDto(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void deleteGenresAndThenReportStatusPerId() {
+
+        //Arrange
+        Genre unused = Genre.builder().id(2L).name("western").build();
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(genreRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(genre, unused));
+        when(genreRepository.findIdsInUse(Set.of(1L, 2L))).thenReturn(List.of(1L));
+        when(genreRepository.deleteUnusedByIdIn(Set.of(2L))).thenReturn(1);
+
+        //Act
+        BulkDeleteResponseDto response = genreService.deleteGenres(List.of(1L, 2L, 3L, 2L));
+
+        //Assert
+        assertThat(response.getTotal()).isEqualTo(3);
+        assertThat(response.getDeleted()).isEqualTo(1);
+        assertThat(response.getNotFound()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getResults()).extracting("status")
+                .containsExactly(BulkItemStatus.FAILED, BulkItemStatus.DELETED, BulkItemStatus.NOT_FOUND);
+        ArgumentCaptor<GenreChangedEvent> event = ArgumentCaptor.forClass(GenreChangedEvent.class);
+        verify(eventPublisher, times(1)).publishEvent(event.capture());
+        assertThat(event.getValue().getType()).isEqualTo(GenreChangedEvent.Type.DELETED);
+        assertThat(event.getValue().getId()).isEqualTo(2L);
+        verify(genreRepository, times(0)).findById(any());
+    }
+
+    @Test
+    void deleteGenresAndThenFailAllWhenMoviesLinkedMeanwhile() {
+
+        //Arrange
+        Genre unused = Genre.builder().id(2L).name("western").build();
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(genreRepository.findAllById(List.of(2L))).thenReturn(List.of(unused));
+        when(genreRepository.findIdsInUse(Set.of(2L))).thenReturn(List.of());
+        when(genreRepository.deleteUnusedByIdIn(Set.of(2L))).thenReturn(0);
+
+        //Act
+        BulkDeleteResponseDto response = genreService.deleteGenres(List.of(2L));
+
+        //Assert
+        assertThat(response.getFailed()).isEqualTo(1);
+        assertThat(response.getResults().get(0).getError()).startsWith("Rolled back: Movies were linked");
+        verifyNoInteractions(eventPublisher);
+    }
+}
@@ -0,0 +1,238 @@
+package org.app.movie.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.dto.request.MovieRequestDto;
+import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.dto.response.BulkDeleteResponseDto;
+import org.app.movie.dto.response.BulkItemStatus;
+import org.app.movie.dto.response.BulkMovieResponseDto;
+import org.app.movie.exception.GenresNotFoundException;
+import org.app.movie.mapper.MovieMapper;
+import org.app.movie.event.MovieChangedEvent;
+import org.app.movie.model.Genre;
+import org.app.movie.model.Movie;
+import org.app.movie.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieBulkServiceTest {
+
+    @InjectMocks
+    private MovieBulkService movieBulkService;
+    @Mock
+    private MovieRepository movieRepository;
+    @Mock
+    private GenreService genreService;
+    @Mock
+    private MovieMapper movieMapper;
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private EntityManager entityManager;
+    @Spy
+    private MovieProperties movieProperties = new MovieProperties();
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private Genre genre;
+
+    @BeforeEach
+    public void setUp() {
+        genre = Genre.builder().id(1L).name("detective").build();
+        movieProperties.getBulk().setChunkSize(2);
+    }
+
+    @Test
+    void addMoviesInChunksAndThenReturnIdPerItem() {
+
+        //Arrange
+        List<MovieRequestDto> dtos = List.of(request("Sherlock Holmes"), request("Sherlock Holmes 2"), request("Enola Holmes"));
+        when(genreService.findAllByNames(List.of("Detective"))).thenReturn(List.of(genre));
+        when(movieMapper.dtoToEntity(any())).thenAnswer(invocation -> Movie.builder().title(invocation.<MovieRequestDto>getArgument(0).getTitle()).build());
+        runTransactions();
+        long[] ids = {0};
+        when(movieRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Movie> movies = invocation.getArgument(0);
+            movies.forEach(movie -> movie.setId(++ids[0]));
+            return movies;
+        });
+
+        //Act
+        BulkMovieResponseDto response = movieBulkService.addMovies(dtos);
+
+        //Assert
+        assertThat(response.getTotal()).isEqualTo(3);
+        assertThat(response.getCreated()).isEqualTo(3);
+        assertThat(response.getFailed()).isZero();
+        assertThat(response.getResults()).extracting("id").containsExactly(1L, 2L, 3L);
+
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(movieRepository, times(2)).saveAll(anyList());
+        verify(entityManager, times(2)).flush();
+        verify(entityManager, times(2)).clear();
+        verify(eventPublisher, times(3)).publishEvent(any(MovieChangedEvent.class));
+    }
+
+    @Test
+    void addMoviesAndThenReportInvalidItemsWithoutFailingOthers() {
+
+        //Arrange
+        MovieRequestDto invalid = request("Sherlock Holmes");
+        invalid.setImdb("77");
+        MovieRequestDto unknownGenre = request("Enola Holmes");
+        unknownGenre.setGenres("Western");
+        List<MovieRequestDto> dtos = List.of(invalid, unknownGenre, request("Sherlock Holmes 2"));
+
+        when(genreService.findAllByNames(List.of("Western"))).thenThrow(new GenresNotFoundException(List.of("western")));
+        when(genreService.findAllByNames(List.of("Detective"))).thenReturn(List.of(genre));
+        when(movieMapper.dtoToEntity(any())).thenAnswer(invocation -> new Movie());
+        runTransactions();
+        when(movieRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Movie> movies = invocation.getArgument(0);
+            movies.forEach(movie -> movie.setId(7L));
+            return movies;
+        });
+
+        //Act
+        BulkMovieResponseDto response = movieBulkService.addMovies(dtos);
+
+        //Assert
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getFailed()).isEqualTo(2);
+        assertThat(response.getResults().get(0).getStatus()).isEqualTo(BulkItemStatus.FAILED);
+        assertThat(response.getResults().get(0).getError()).startsWith("imdb:");
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Genre not found: western");
+        assertThat(response.getResults().get(2).getId()).isEqualTo(7L);
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+
+    @Test
+    void addMoviesAndThenFailWholeChunkWhenDatabaseRejectsIt() {
+
+        //Arrange
+        when(genreService.findAllByNames(any())).thenReturn(List.of(genre));
+        when(movieMapper.dtoToEntity(any())).thenAnswer(invocation -> new Movie());
+        when(transactionTemplate.execute(any())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        //Act
+        BulkMovieResponseDto response = movieBulkService.addMovies(List.of(request("Sherlock Holmes"), request("Enola Holmes")));
+
+        //Assert
+        assertThat(response.getCreated()).isZero();
+        assertThat(response.getResults()).extracting("status").containsOnly(BulkItemStatus.FAILED);
+        assertThat(response.getResults().get(0).getError()).isEqualTo("Chunk rolled back: duplicate key");
+    }
+
+    @Test
+    void deleteMoviesInChunksAndThenReportDeletedAndNotFound() {
+
+        //Arrange
+        runTransactions();
+        when(movieRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(movieRepository.findExistingIds(List.of(3L))).thenReturn(List.of());
+
+        //Act
+        BulkDeleteResponseDto response = movieBulkService.deleteMovies(List.of(1L, 2L, 2L, 3L));
+
+        //Assert
+        assertThat(response.getTotal()).isEqualTo(3);
+        assertThat(response.getDeleted()).isEqualTo(2);
+        assertThat(response.getNotFound()).isEqualTo(1);
+        assertThat(response.getResults()).extracting("status")
+                .containsExactly(BulkItemStatus.DELETED, BulkItemStatus.DELETED, BulkItemStatus.NOT_FOUND);
+        verify(movieRepository, times(1)).deleteByIdIn(List.of(1L, 2L));
+        verify(movieRepository, times(1)).deleteByIdIn(anyList());
+        ArgumentCaptor<MovieChangedEvent> events = ArgumentCaptor.forClass(MovieChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting("id").containsExactly(1L, 2L);
+        assertThat(events.getAllValues()).extracting("type").containsOnly(MovieChangedEvent.Type.DELETED);
+        verify(movieRepository, times(0)).findById(any());
+    }
+
+    @Test
+    void deleteMoviesByFilterAndThenWalkMatchingIdsInPages() {
+
+        //Arrange
+        runTransactions();
+        MovieSearchRequest filter = MovieSearchRequest.builder().director("Guy Ritchie").build();
+        when(movieRepository.findIds(any(), eq(0L), eq(Limit.of(2)))).thenReturn(List.of(4L, 9L));
+        when(movieRepository.findIds(any(), eq(9L), eq(Limit.of(2)))).thenReturn(List.of(12L));
+        when(movieRepository.findExistingIds(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        //Act
+        BulkDeleteResponseDto response = movieBulkService.deleteMovies(filter);
+
+        //Assert
+        assertThat(response.getDeleted()).isEqualTo(3);
+        assertThat(response.getResults()).extracting("id").containsExactly(4L, 9L, 12L);
+        verify(movieRepository, times(2)).findIds(any(), anyLong(), any());
+        verify(movieRepository, times(2)).deleteByIdIn(anyList());
+    }
+
+    @Test
+    void deleteMoviesByImdbRangeOnlyAndThenAcceptIt() {
+
+        //Arrange
+        when(movieRepository.findIds(any(), eq(0L), eq(Limit.of(2)))).thenReturn(List.of());
+
+        //Act
+        BulkDeleteResponseDto response = movieBulkService.deleteMovies(MovieSearchRequest.builder().minImdb(8.0).build());
+
+        //Assert
+        assertThat(response.getTotal()).isEqualTo(0);
+        verify(movieRepository, times(1)).findIds(any(), eq(0L), eq(Limit.of(2)));
+    }
+
+    @Test
+    void deleteMoviesWithoutFilterAndThenRejectRequest() {
+        assertThatThrownBy(() -> movieBulkService.deleteMovies(MovieSearchRequest.builder().build()))
+                .isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> movieBulkService.deleteMovies(MovieSearchRequest.builder().query("holmes").build()))
+                .isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(movieRepository);
+    }
+
+    private void runTransactions() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    private MovieRequestDto request(String title) {
+        return MovieRequestDto.builder().
+                title(title).
+                year(2009).
+                director("Lionel Wigram").
+                genres("Detective").
+                imdb("7.6").
+                build();
+    }
+}
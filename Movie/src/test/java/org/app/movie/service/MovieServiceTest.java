@@ -1,36 +1,57 @@
 package org.app.movie.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.app.movie.dto.request.MovieRequestDto;
 import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.dto.response.MoviePageResponseDto;
 import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.dto.response.MovieSearchResponseDto;
 import org.app.movie.dto.update.MovieUpdateDto;
+import org.app.movie.event.MovieChangedEvent;
 import org.app.movie.exception.DataNotDeleteableException;
+import org.app.movie.exception.GenresNotFoundException;
 import org.app.movie.exception.NotFoundException;
 import org.app.movie.mapper.MovieMapper;
 import org.app.movie.model.Genre;
 import org.app.movie.model.Movie;
 import org.app.movie.model.Movie;
-import org.app.movie.repository.GenreRepository;
+import org.app.movie.repository.MovieGenreCount;
 import org.app.movie.repository.MovieRepository;
+import org.app.movie.repository.MovieTextSearchHit;
+import org.app.movie.repository.MovieYearRatingCount;
+import org.app.movie.search.ColumnarMovieIndex;
+import org.app.movie.search.GenreBitmapIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,9 +62,21 @@ class MovieServiceTest {
     @Mock
     private MovieRepository movieRepository;
     @Mock
-    private GenreRepository genreRepository;
+    private GenreService genreService;
     @Mock
     private MovieMapper movieMapper;
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    @Mock
+    private EntityManager entityManager;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private ColumnarMovieIndex columnarMovieIndex;
+    @Mock
+    private GenreBitmapIndex genreBitmapIndex;
+    @Mock
+    private SearchResultCache searchResultCache;
 
     private Movie movie;
     private MovieResponsetDto movieResponseDto;
@@ -67,33 +100,70 @@ class MovieServiceTest {
                 director("Lionel Wigram").
                 imdb("7.6").
                 build();
+
+        lenient().when(searchResultCache.get(any(), anyBoolean(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<MovieSearchResponseDto>>getArgument(2).get());
     }
 
     @Test
     void getAllMoviesWithSuccess() {
 
         //Arrange
-        when(movieRepository.findAll()).thenReturn(List.of(movie));
-        when(movieMapper.toDto(any())).thenReturn(movieResponseDto);
+        when(movieRepository.findPageAfter(eq(0L), any(Limit.class))).thenReturn(List.of(movieResponseDto));
 
         //Act
-        List<MovieResponsetDto> allMovies = movieService.getAllMovies();
+        MoviePageResponseDto allMovies = movieService.getAllMovies(0L, 10);
         //Assert
-        assertThat(allMovies).isEqualTo(List.of(movieResponseDto));
+        assertThat(allMovies.getMovies()).isEqualTo(List.of(movieResponseDto));
+        assertThat(allMovies.getNextCursor()).isNull();
 
-        verify(movieRepository,times(1)).findAll();
+        verify(movieRepository,times(1)).findPageAfter(0L, Limit.of(11));
         verify(movieRepository,times(0)).save(any());
-        verify(movieMapper,times(1)).toDto(any());
         verifyNoMoreInteractions(movieRepository, movieMapper);
 
     }
 
     @Test
-    void getMovieWithIdAndThenReturnSuccess() {
+    void getAllMoviesWithFullPageAndThenReturnNextCursor() {
 
         //Arrange
-        when(movieRepository.findById(anyLong())).thenReturn(Optional.of(movie));
+        MovieResponsetDto next = MovieResponsetDto.builder().id(2L).title("Sherlock Holmes 2").build();
+        when(movieRepository.findPageAfter(eq(0L), any(Limit.class))).thenReturn(List.of(movieResponseDto, next));
+
+        //Act
+        MoviePageResponseDto page = movieService.getAllMovies(0L, 1);
+
+        //Assert
+        assertThat(page.getMovies()).isEqualTo(List.of(movieResponseDto));
+        assertThat(page.getNextCursor()).isEqualTo(1L);
+        verify(movieRepository,times(1)).findPageAfter(0L, Limit.of(2));
+    }
+
+    @Test
+    void exportMoviesAndThenWriteOneLinePerMovie() throws Exception {
+
+        //Arrange
+        when(movieRepository.streamAll()).thenReturn(Stream.of(movie, movie));
         when(movieMapper.toDto(any())).thenReturn(movieResponseDto);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //Act
+        movieService.exportMovies(out);
+
+        //Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(objectMapper.readValue(lines[0], Map.class)).containsEntry("title", "Sherlock Holmes");
+
+        verify(movieRepository,times(1)).streamAll();
+        verify(entityManager,times(2)).detach(movie);
+    }
+
+    @Test
+    void getMovieWithIdAndThenReturnSuccess() {
+
+        //Arrange
+        when(movieRepository.findDtoById(anyLong())).thenReturn(Optional.of(movieResponseDto));
 
         //Act
         MovieResponsetDto  result = movieService.getMovie(anyLong());
@@ -104,22 +174,22 @@ class MovieServiceTest {
         assertThat(result.getTitle()).isEqualTo(movieResponseDto.getTitle());
         assertThat(result.getImdb()).isEqualTo(movieResponseDto.getImdb());
 
-        verify(movieRepository,times(1)).findById(anyLong());
-        verify(movieRepository,times(0)).save(any());
-        verify(movieMapper,times(1)).toDto(any());
+        verify(movieRepository,times(1)).findDtoById(anyLong());
+        verify(movieRepository,times(0)).findById(anyLong());
+        verify(movieMapper,times(0)).toDto(any());
     }
 
     @Test
     void getMovieWithIdAndThenThrowsNotFoundException() {
 
         //Arrange
-        when(movieRepository.findById(anyLong())).thenReturn(Optional.empty());
+        when(movieRepository.findDtoById(anyLong())).thenReturn(Optional.empty());
 
         //Act&Assert
 
         assertThatThrownBy(()-> movieService.getMovie(anyLong())).isInstanceOf(NotFoundException.class);
 
-        verify(movieRepository,times(1)).findById(anyLong());
+        verify(movieRepository,times(1)).findDtoById(anyLong());
         verify(movieRepository,times(0)).save(any());
         verify(movieMapper,times(0)).toDto(any());
     }
@@ -148,6 +218,7 @@ class MovieServiceTest {
 
         verify(movieRepository, times(1)).findById(1L);
         verify(movieRepository, times(1)).delete(delete);
+        verify(eventPublisher, times(1)).publishEvent(any(MovieChangedEvent.class));
         verify(movieMapper, times(1)).toDto(delete);
         verifyNoMoreInteractions(movieRepository, movieMapper);
     }
@@ -184,7 +255,7 @@ class MovieServiceTest {
 
         Genre genre = Genre.builder().id(1L).name("Detective").build();
 
-        when(genreRepository.findByName(any())).thenReturn(Optional.of(genre));
+        when(genreService.findAllByNames(List.of("Detective"))).thenReturn(List.of(genre));
         when(movieMapper.dtoToEntity(any())).thenReturn(movie);
         when(movieRepository.save(any(Movie.class))).thenReturn(movie);
 
@@ -200,7 +271,12 @@ class MovieServiceTest {
 
         verify(movieRepository,times(1)).save(movie);
         verify(movieMapper,times(0)).toDto(any());
-        verify(genreRepository,times(1)).findByName(any());
+        verify(genreService,times(1)).findAllByNames(any());
+
+        var captor = ArgumentCaptor.forClass(MovieChangedEvent.class);
+        verify(eventPublisher,times(1)).publishEvent(captor.capture());
+        assertThat(captor.getValue().getType()).isEqualTo(MovieChangedEvent.Type.SAVED);
+        assertThat(captor.getValue().getMovie().getTitle()).isEqualTo("Sherlock Holmes");
     }
 
     @Test
@@ -215,13 +291,36 @@ class MovieServiceTest {
                 imdb("7.6").
                 build();
 
-        when(genreRepository.findByName(any())).thenReturn(Optional.empty());
+        when(genreService.findAllByNames(any())).thenThrow(new GenresNotFoundException(List.of("detective")));
 
         //Act&Assert
         assertThatThrownBy(()-> movieService.addMovie(dto)).isInstanceOf(NotFoundException.class);
 
         verify(movieRepository,times(0)).save(movie);
-        verify(genreRepository,times(1)).findByName(any());
+        verify(genreService,times(1)).findAllByNames(any());
+    }
+
+    @Test
+    void addMovieWithSeveralGenresAndThenResolveThemAtOnce() {
+        //Arrange
+
+        MovieRequestDto dto = MovieRequestDto.builder().
+                title("Sherlock Holmes").
+                year(2009).
+                director("Lionel Wigram").
+                genres("Detective, Action,,Comedy").
+                imdb("7.6").
+                build();
+
+        when(genreService.findAllByNames(any())).thenReturn(List.of());
+        when(movieMapper.dtoToEntity(any())).thenReturn(movie);
+        when(movieRepository.save(any(Movie.class))).thenReturn(movie);
+
+        //Act
+        movieService.addMovie(dto);
+
+        //Assert
+        verify(genreService,times(1)).findAllByNames(List.of("Detective", "Action", "Comedy"));
     }
 
     @Test
@@ -231,13 +330,50 @@ class MovieServiceTest {
                 id(1L).name("Detective").
                 build();
 
-        when(movieRepository.findByGenre(any())).thenReturn(List.of(movie));
-        when(movieMapper.toDto(any())).thenReturn(movieResponseDto);
+        when(movieRepository.findPageByGenreAfter(eq("Detective"), eq(0L), any(Limit.class))).thenReturn(List.of(movieResponseDto));
 
         // Act
-        List<MovieResponsetDto> dto = movieService.getByGenre("Detective");
+        MoviePageResponseDto dto = movieService.getByGenre("Detective", 0L, 100);
+
+        assertThat(dto.getMovies()).isEqualTo(List.of(movieResponseDto));
+        verify(movieRepository, times(1)).findPageByGenreAfter(any(), any(), any(Limit.class));
+        verify(movieMapper, times(0)).toDto(any());
+    }
+
+    @Test
+    void getMoviesByGenreSetsWithBitmapIndexAndThenHydrateSurvivingIds() {
+        //Arrange
+        Genre action = Genre.builder().id(1L).name("action").build();
+        Genre comedy = Genre.builder().id(2L).name("comedy").build();
+        Genre horror = Genre.builder().id(3L).name("horror").build();
+        when(genreService.findAllByNames(List.of("action", "comedy"))).thenReturn(List.of(action, comedy));
+        when(genreService.findAllByNames(List.of("horror"))).thenReturn(List.of(horror));
+        when(genreBitmapIndex.isReady()).thenReturn(true);
+        when(genreBitmapIndex.query(List.of(1L, 2L), List.of(), List.of(3L), 0L, 2)).thenReturn(List.of(1L, 4L));
+        when(movieRepository.findDtosByIds(List.of(1L, 4L))).thenReturn(List.of(movieResponseDto, movieResponseDto));
+
+        //Act
+        MoviePageResponseDto page = movieService.getByGenres(List.of("action", " comedy"), List.of(), List.of("horror"), 0L, 1);
+
+        //Assert
+        assertThat(page.getMovies()).containsExactly(movieResponseDto);
+        assertThat(page.getNextCursor()).isEqualTo(movieResponseDto.getId());
+        verify(movieRepository, times(0)).findDtos(any(Specification.class), any(Limit.class));
+    }
+
+    @Test
+    void getMoviesByGenreSetsWithoutBitmapIndexAndThenQueryDatabase() {
+        //Arrange
+        when(genreService.findAllByNames(List.of("action"))).thenReturn(List.of(Genre.builder().id(1L).name("action").build()));
+        when(movieRepository.findDtos(any(Specification.class), eq(Limit.of(101)))).thenReturn(List.of(movieResponseDto));
+
+        //Act
+        MoviePageResponseDto page = movieService.getByGenres(List.of(), List.of("action"), List.of(), 0L, 100);
 
-        verify(movieRepository, times(1)).findByGenre(any());
+        //Assert
+        assertThat(page.getMovies()).containsExactly(movieResponseDto);
+        assertThat(page.getNextCursor()).isNull();
+        verify(genreBitmapIndex, times(0)).query(any(), any(), any(), anyLong(), anyInt());
     }
 
     @Test
@@ -250,15 +386,158 @@ class MovieServiceTest {
                 imdb("7.6").
                 build();
 
-        when(movieRepository.findAll(any(Specification.class))).thenReturn(List.of(movie));
-        when(movieMapper.toDto(any())).thenReturn(movieResponseDto);
+        when(movieRepository.findDtos(any(Specification.class))).thenReturn(List.of(movieResponseDto));
 
         //Act
         List<MovieResponsetDto> movieResponsetDtos = movieService.searchMovie(dto);
         // Assert
+        assertThat(movieResponsetDtos).isEqualTo(List.of(movieResponseDto));
 
-        verify(movieRepository,times(1)).findAll(any(Specification.class));
-        verify(movieMapper,times(1)).toDto(any());
+        verify(movieRepository,times(1)).findDtos(any(Specification.class));
+        verify(movieMapper,times(0)).toDto(any());
+    }
+
+    @Test
+    void searchMoviesWithColumnarIndexReadyAndThenSkipDatabase() {
+        //Arrange
+        MovieSearchRequest dto = MovieSearchRequest.builder().beginyear(2000).endyear(2010).build();
+        when(columnarMovieIndex.isReady()).thenReturn(true);
+        when(columnarMovieIndex.supports(dto)).thenReturn(true);
+        when(columnarMovieIndex.search(dto)).thenReturn(List.of(movieResponseDto));
+
+        //Act
+        List<MovieResponsetDto> result = movieService.searchMovie(dto);
+
+        //Assert
+        assertThat(result).isEqualTo(List.of(movieResponseDto));
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    void searchMoviesWithQueryAndThenReturnRankedHits() {
+        //Arrange
+
+        MovieSearchRequest dto = MovieSearchRequest.builder().
+                query("  sherlok hol ").
+                beginyear(2000).
+                build();
+        MovieTextSearchHit hit = mock(MovieTextSearchHit.class);
+
+        when(movieRepository.searchText("sherlok hol", "sherlok:* & hol:*", null, null, 2000, 0, null, -1, -1, 20))
+                .thenReturn(List.of(hit));
+        when(movieMapper.hitToDto(hit)).thenReturn(movieResponseDto);
+
+        //Act
+        List<MovieResponsetDto> result = movieService.searchMovie(dto);
+
+        // Assert
+        assertThat(result).isEqualTo(List.of(movieResponseDto));
+        verify(movieRepository,times(0)).findDtos(any());
+    }
+
+    @Test
+    void searchMoviesWithFacetsAndThenFoldDatabaseGroupCounts() {
+        //Arrange
+        MovieSearchRequest dto = MovieSearchRequest.builder().director("Guy Ritchie").build();
+        when(movieRepository.findDtos(any(Specification.class))).thenReturn(List.of(movieResponseDto));
+        when(movieRepository.countByYearAndRating(any())).thenReturn(List.of(
+                new MovieYearRatingCount(2009, (short) 76, 2),
+                new MovieYearRatingCount(2001, (short) 71, 1),
+                new MovieYearRatingCount(1999, null, 3)));
+        when(movieRepository.countByGenre(any())).thenReturn(List.of(new MovieGenreCount("detective", 3)));
+
+        //Act
+        MovieSearchResponseDto result = movieService.searchMovieWithFacets(dto);
+
+        //Assert
+        assertThat(result.getMovies()).isEqualTo(List.of(movieResponseDto));
+        assertThat(result.getFacets().getDecades()).containsExactly(Map.entry(1990, 3L), Map.entry(2000, 3L));
+        assertThat(result.getFacets().getRatings()).containsExactly(Map.entry(7, 3L));
+        assertThat(result.getFacets().getGenres()).containsExactly(Map.entry("detective", 3L));
+        verify(searchResultCache).get(any(), eq(true), any());
+    }
+
+    @Test
+    void searchMoviesWithFacetsAndQueryAndThenCountRankedHits() {
+        //Arrange
+        MovieSearchRequest dto = MovieSearchRequest.builder().query("holmes").minImdb(7.5).build();
+        MovieTextSearchHit hit = mock(MovieTextSearchHit.class);
+        movieResponseDto.setGenre("detective,drama");
+        when(movieRepository.searchText("holmes", "holmes:*", null, null, 0, 0, null, 75, -1, 20)).thenReturn(List.of(hit));
+        when(movieMapper.hitToDto(hit)).thenReturn(movieResponseDto);
+
+        //Act
+        MovieSearchResponseDto result = movieService.searchMovieWithFacets(dto);
+
+        //Assert
+        assertThat(result.getFacets().getGenres()).containsExactly(Map.entry("detective", 1L), Map.entry("drama", 1L));
+        assertThat(result.getFacets().getDecades()).containsExactly(Map.entry(2000, 1L));
+        assertThat(result.getFacets().getRatings()).containsExactly(Map.entry(7, 1L));
+        verify(movieRepository, times(0)).countByGenre(any());
+    }
+
+    @Test
+    void searchMoviesWithPunctuationOnlyQueryAndThenReturnEmpty() {
+
+        //Act
+        List<MovieResponsetDto> result = movieService.searchMovie(MovieSearchRequest.builder().query("?!").build());
+
+        // Assert
+        assertThat(result).isEmpty();
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    void normalizeAndThenDropBlankFiltersQueryCaseAndUnusedLimit() {
+
+        //Act
+        MovieSearchRequest filters = MovieService.normalize(MovieSearchRequest.builder().
+                title("").director("Guy Ritchie").imdb("  ").beginyear(2000).limit(50).build());
+        MovieSearchRequest ranked = MovieService.normalize(MovieSearchRequest.builder().
+                query("  Sherlok \t HOL ").limit(500).build());
+
+        //Assert
+        assertThat(filters).isEqualTo(MovieSearchRequest.builder().director("Guy Ritchie").beginyear(2000).build());
+        assertThat(ranked).isEqualTo(MovieSearchRequest.builder().query("sherlok hol").limit(100).build());
+        assertThat(MovieService.normalize(MovieSearchRequest.builder().query("sherlok hol").build()).getLimit()).isEqualTo(20);
+    }
+
+    @Test
+    void imdbScoreBoundsAndThenRoundInwardsToStoredScores() {
+
+        //Act
+        MovieSearchRequest range = MovieSearchRequest.builder().minImdb(7.45).maxImdb(8.0).build();
+
+        //Assert
+        assertThat(range.getMinImdbScore()).isEqualTo((short) 75);
+        assertThat(range.getMaxImdbScore()).isEqualTo((short) 80);
+        assertThat(MovieSearchRequest.builder().maxImdb(7.59).build().getMaxImdbScore()).isEqualTo((short) 75);
+        assertThat(MovieSearchRequest.builder().build().getMinImdbScore()).isNull();
+        assertThat(Movie.imdbScore("7.6")).isEqualTo((short) 76);
+        assertThat(Movie.imdbScore(" 10 ")).isEqualTo((short) 100);
+        assertThat(Movie.imdbScore("N/A")).isNull();
+        assertThat(MovieService.normalize(range)).isEqualTo(range);
+    }
+
+    @Test
+    void searchMoviesAndThenGoThroughResultCacheWithNormalizedRequest() {
+        //Arrange
+        MovieSearchRequest dto = MovieSearchRequest.builder().title("").director("Guy Ritchie").build();
+        doReturn(MovieSearchResponseDto.builder().movies(List.of(movieResponseDto)).build()).when(searchResultCache)
+                .get(eq(MovieSearchRequest.builder().director("Guy Ritchie").build()), eq(false), any());
+
+        //Act
+        List<MovieResponsetDto> result = movieService.searchMovie(dto);
+
+        //Assert
+        assertThat(result).isEqualTo(List.of(movieResponseDto));
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    void toPrefixQueryAndThenMatchEveryTokenAsPrefix() {
+        assertThat(MovieService.toPrefixQuery("Sherlock  Holmes: A Game")).isEqualTo("sherlock:* & holmes:* & a:* & game:*");
+        assertThat(MovieService.toPrefixQuery("Amélie'")).isEqualTo("amélie:*");
     }
 
     @Test
@@ -274,7 +553,7 @@ class MovieServiceTest {
 
         when(movieRepository.findById(anyLong())).thenReturn(Optional.of(movie));
         when(movieMapper.toDto(movie)).thenReturn(movieResponseDto);
-        when(genreRepository.findByName(any())).thenReturn(Optional.of(genre));
+        when(genreService.findAllByNames(List.of("Detective"))).thenReturn(List.of(genre));
 
         //Act
         MovieResponsetDto movieResponsetDtos = movieService.updateMovie(movie.getId(),dto);
@@ -287,7 +566,7 @@ class MovieServiceTest {
 
         verify(movieRepository,times(1)).findById(movie.getId());
         verify(movieRepository,times(1)).save(movie);
-        verify(genreRepository,times(1)).findByName(any(String.class));
+        verify(genreService,times(1)).findAllByNames(any());
         verify(movieMapper,times(1)).toDto(any());
     }
 
@@ -303,7 +582,7 @@ class MovieServiceTest {
                 .build();
 
         when(movieRepository.findById(anyLong())).thenReturn(Optional.of(movie));
-        when(genreRepository.findByName(any())).thenReturn(Optional.empty());
+        when(genreService.findAllByNames(any())).thenThrow(new GenresNotFoundException(List.of("detective")));
 
         // Act & Assert
         assertThatThrownBy(() -> movieService.updateMovie(movie.getId(), dto))
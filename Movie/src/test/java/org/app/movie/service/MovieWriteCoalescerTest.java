@@ -0,0 +1,236 @@
+package org.app.movie.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.dto.request.MovieRequestDto;
+import org.app.movie.exception.GenresNotFoundException;
+import org.app.movie.exception.WriteQueueFullException;
+import org.app.movie.exception.WriteTimeoutException;
+import org.app.movie.mapper.MovieMapper;
+import org.app.movie.model.Genre;
+import org.app.movie.model.Movie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MovieWriteCoalescerTest {
+
+    @Mock
+    private MovieBulkService movieBulkService;
+    @Mock
+    private GenreService genreService;
+    @Mock
+    private MovieMapper movieMapper;
+
+    private final MovieProperties movieProperties = new MovieProperties();
+    private final AtomicLong ids = new AtomicLong();
+    private MovieWriteCoalescer movieWriteCoalescer;
+
+    private final Genre detective = Genre.builder().id(1L).name("detective").build();
+    private final Genre drama = Genre.builder().id(2L).name("drama").build();
+
+    @BeforeEach
+    public void setUp() {
+        movieProperties.getBulk().getCoalescer().setEnabled(true);
+        movieProperties.getBulk().getCoalescer().setBatchSize(10);
+        movieProperties.getBulk().getCoalescer().setLinger(Duration.ofMillis(200));
+        lenient().when(movieMapper.dtoToEntity(any())).thenAnswer(invocation ->
+                Movie.builder().title(invocation.<MovieRequestDto>getArgument(0).getTitle()).build());
+        movieWriteCoalescer = new MovieWriteCoalescer(movieBulkService, genreService, movieMapper, movieProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        movieWriteCoalescer.destroy();
+    }
+
+    @Test
+    void flushAndThenInsertBatchOnceAndAnswerEachCallerWithItsId() {
+
+        //Arrange
+        List<MovieWriteCoalescer.PendingCreate> batch = List.of(pending("Sherlock Holmes", "Detective, drama"),
+                pending("Enola Holmes", "detective"), pending("Snatch", "Drama"));
+        when(genreService.findAllByNames(List.of("detective", "drama"))).thenReturn(List.of(detective, drama));
+        when(movieBulkService.insertAll(anyList())).thenAnswer(invocation -> saved(invocation.getArgument(0)));
+
+        //Act
+        movieWriteCoalescer.flush(batch);
+
+        //Assert
+        assertThat(batch).extracting(pending -> pending.result().join()).containsExactly(1L, 2L, 3L);
+        verify(genreService, times(1)).findAllByNames(anyList());
+        verify(movieBulkService, times(1)).insertAll(argThat(movies -> movies.size() == 3
+                && movies.get(0).getGenres().equals(List.of(detective, drama))
+                && movies.get(2).getGenres().equals(List.of(drama))));
+    }
+
+    @Test
+    void flushWithUnknownGenreAndThenFailOnlyThatCaller() {
+
+        //Arrange
+        MovieWriteCoalescer.PendingCreate known = pending("Sherlock Holmes", "detective");
+        MovieWriteCoalescer.PendingCreate unknown = pending("Fargo", "detective,western");
+        when(genreService.findAllByNames(List.of("detective", "western"))).thenThrow(new GenresNotFoundException(List.of("western")));
+        when(genreService.findAllByNames(List.of("detective"))).thenReturn(List.of(detective));
+        when(movieBulkService.insertAll(anyList())).thenAnswer(invocation -> saved(invocation.getArgument(0)));
+
+        //Act
+        movieWriteCoalescer.flush(List.of(known, unknown));
+
+        //Assert
+        assertThat(known.result().join()).isEqualTo(1L);
+        assertThatThrownBy(() -> unknown.result().join())
+                .hasCauseInstanceOf(GenresNotFoundException.class)
+                .satisfies(ex -> assertThat(((GenresNotFoundException) ex.getCause()).getNames()).containsExactly("western"));
+        verify(movieBulkService, times(1)).insertAll(argThat(movies -> movies.size() == 1));
+    }
+
+    @Test
+    void flushRolledBackAndThenRetryEachCreateAlone() {
+
+        //Arrange
+        MovieWriteCoalescer.PendingCreate good = pending("Sherlock Holmes", "detective");
+        MovieWriteCoalescer.PendingCreate duplicate = pending("Enola Holmes", "detective");
+        when(genreService.findAllByNames(List.of("detective"))).thenReturn(List.of(detective));
+        when(movieBulkService.insertAll(anyList())).thenAnswer(invocation -> {
+            List<Movie> movies = invocation.getArgument(0);
+            if (movies.stream().anyMatch(movie -> movie.getTitle().equals("Enola Holmes"))) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return saved(movies);
+        });
+
+        //Act
+        movieWriteCoalescer.flush(List.of(good, duplicate));
+
+        //Assert
+        assertThat(good.result().join()).isEqualTo(1L);
+        assertThatThrownBy(() -> duplicate.result().join()).hasCauseInstanceOf(DataIntegrityViolationException.class);
+        verify(movieBulkService, times(3)).insertAll(anyList());
+    }
+
+    @Test
+    void submitBeyondQueueCapacityAndThenRejectWithoutQueueing() {
+
+        //Arrange
+        movieProperties.getBulk().getCoalescer().setQueueCapacity(1);
+        movieWriteCoalescer = new MovieWriteCoalescer(movieBulkService, genreService, movieMapper, movieProperties, new SimpleMeterRegistry());
+        movieWriteCoalescer.submit(request("Sherlock Holmes", "detective"));
+
+        //Act&Assert
+        assertThatThrownBy(() -> movieWriteCoalescer.submit(request("Enola Holmes", "detective")))
+                .isInstanceOf(WriteQueueFullException.class);
+    }
+
+    @Test
+    void startAndThenCommitQueuedCreatesAsOneBatch() throws Exception {
+
+        //Arrange
+        when(genreService.findAllByNames(List.of("detective"))).thenReturn(List.of(detective));
+        when(movieBulkService.insertAll(anyList())).thenAnswer(invocation -> saved(invocation.getArgument(0)));
+        List<CompletableFuture<Long>> results = IntStream.range(0, 5)
+                .mapToObj(i -> movieWriteCoalescer.submit(request("Movie " + i, "detective")))
+                .toList();
+
+        //Act
+        movieWriteCoalescer.start();
+
+        //Assert
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        assertThat(results).extracting(CompletableFuture::join).containsExactly(1L, 2L, 3L, 4L, 5L);
+        verify(movieBulkService, times(1)).insertAll(anyList());
+    }
+
+    @Test
+    void addMovieWithFailedInsertAndThenRethrowItsCause() {
+
+        //Arrange
+        when(genreService.findAllByNames(List.of("western"))).thenThrow(new GenresNotFoundException(List.of("western")));
+        movieWriteCoalescer.start();
+
+        //Act&Assert
+        assertThatThrownBy(() -> movieWriteCoalescer.addMovie(request("Fargo", "western")))
+                .isInstanceOf(GenresNotFoundException.class)
+                .isNotInstanceOf(CompletionException.class);
+        verifyNoInteractions(movieBulkService);
+    }
+
+    @Test
+    void addMovieWithoutCommitInTimeAndThenGiveUp() {
+
+        //Arrange
+        movieProperties.getBulk().getCoalescer().setTimeout(Duration.ofMillis(50));
+
+        //Act&Assert
+        assertThatThrownBy(() -> movieWriteCoalescer.addMovie(request("Fargo", "detective")))
+                .isInstanceOf(WriteTimeoutException.class);
+    }
+
+    @Test
+    void flushThrowingErrorAndThenFailThatBatchAndKeepWriting() throws Exception {
+
+        //Arrange
+        movieProperties.getBulk().getCoalescer().setLinger(Duration.ZERO);
+        when(genreService.findAllByNames(List.of("detective"))).thenReturn(List.of(detective));
+        when(movieBulkService.insertAll(anyList()))
+                .thenThrow(new StackOverflowError())
+                .thenAnswer(invocation -> saved(invocation.getArgument(0)));
+        movieWriteCoalescer.start();
+
+        //Act
+        CompletableFuture<Long> failed = movieWriteCoalescer.submit(request("Sherlock Holmes", "detective"));
+        assertThatThrownBy(() -> failed.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(StackOverflowError.class);
+        CompletableFuture<Long> next = movieWriteCoalescer.submit(request("Enola Holmes", "detective"));
+
+        //Assert
+        assertThat(next.get(5, TimeUnit.SECONDS)).isEqualTo(1L);
+    }
+
+    @Test
+    void destroyAndThenFailQueuedCreatesAndRejectNewOnes() throws InterruptedException {
+
+        //Arrange
+        CompletableFuture<Long> queued = movieWriteCoalescer.submit(request("Sherlock Holmes", "detective"));
+
+        //Act
+        movieWriteCoalescer.destroy();
+
+        //Assert
+        assertThat(queued).isCompletedExceptionally();
+        assertThatThrownBy(() -> movieWriteCoalescer.submit(request("Enola Holmes", "detective")))
+                .isInstanceOf(WriteQueueFullException.class);
+        verifyNoInteractions(movieBulkService);
+    }
+
+    private MovieWriteCoalescer.PendingCreate pending(String title, String genres) {
+        return new MovieWriteCoalescer.PendingCreate(request(title, genres), new CompletableFuture<>());
+    }
+
+    private MovieRequestDto request(String title, String genres) {
+        return MovieRequestDto.builder().title(title).director("Guy Ritchie").year(2009).genres(genres).imdb("7.6").build();
+    }
+
+    private List<Movie> saved(List<Movie> movies) {
+        movies.forEach(movie -> movie.setId(ids.incrementAndGet()));
+        return movies;
+    }
+}
@@ -0,0 +1,73 @@
+package org.app.movie.service;
+
+import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.exception.NotFoundException;
+import org.app.movie.repository.ReactiveMovieRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveMovieServiceTest {
+
+    @InjectMocks
+    private ReactiveMovieService reactiveMovieService;
+    @Mock
+    private ReactiveMovieRepository reactiveMovieRepository;
+
+    private final MovieResponsetDto movie = new MovieResponsetDto(1L, "Sherlock Holmes", "Guy Ritchie", 2009, "detective", "7.6");
+
+    @Test
+    void getAllMoviesAndThenClampPageSize() {
+
+        //Arrange
+        when(reactiveMovieRepository.findPageAfter(0L, 500)).thenReturn(Flux.just(movie));
+
+        //Act&Assert
+        StepVerifier.create(reactiveMovieService.getAllMovies(0L, 10_000)).expectNext(movie).verifyComplete();
+    }
+
+    @Test
+    void getMovieWithUnknownIdAndThenThrowNotFound() {
+
+        //Arrange
+        when(reactiveMovieRepository.findDtoById(1L)).thenReturn(Mono.empty());
+
+        //Act&Assert
+        StepVerifier.create(reactiveMovieService.getMovie(1L)).expectError(NotFoundException.class).verify();
+    }
+
+    @Test
+    void searchWithQueryAndThenRejectWithoutTouchingDatabase() {
+
+        //Act&Assert
+        StepVerifier.create(reactiveMovieService.searchMovie(MovieSearchRequest.builder().query("holmes").build()))
+                .expectError(ResponseStatusException.class)
+                .verify();
+        verifyNoInteractions(reactiveMovieRepository);
+    }
+
+    @Test
+    void searchWithFiltersAndThenStreamRepositoryRows() {
+
+        //Arrange
+        MovieSearchRequest request = MovieSearchRequest.builder().director("Guy Ritchie").title(" ").build();
+        when(reactiveMovieRepository.search(MovieSearchRequest.builder().director("Guy Ritchie").build())).thenReturn(Flux.just(movie, movie));
+
+        //Act&Assert
+        StepVerifier.create(reactiveMovieService.searchMovie(request), 1)
+                .expectNext(movie)
+                .thenRequest(1)
+                .expectNext(movie)
+                .verifyComplete();
+    }
+}
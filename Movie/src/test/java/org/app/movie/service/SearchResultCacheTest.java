@@ -0,0 +1,216 @@
+package org.app.movie.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.dto.request.MovieSearchRequest;
+import org.app.movie.dto.response.CacheRegionStatisticsDto;
+import org.app.movie.dto.response.MovieResponsetDto;
+import org.app.movie.dto.response.MovieSearchResponseDto;
+import org.app.movie.event.GenreChangedEvent;
+import org.app.movie.event.MovieChangedEvent;
+import org.app.movie.model.Movie;
+import org.app.movie.search.FacetCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchResultCacheTest {
+
+    private MovieProperties movieProperties;
+    private CatalogVersionService catalogVersionService;
+    private SimpleMeterRegistry meterRegistry;
+    private SearchResultCache searchResultCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    public void setUp() {
+        movieProperties = new MovieProperties();
+        catalogVersionService = new CatalogVersionService();
+        meterRegistry = new SimpleMeterRegistry();
+        searchResultCache = new SearchResultCache(catalogVersionService, movieProperties, meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getEquivalentRequestsAndThenLoadOnce() {
+
+        //Arrange
+        MovieSearchRequest first = MovieService.normalize(MovieSearchRequest.builder().director("Guy Ritchie").title("").build());
+        MovieSearchRequest second = MovieService.normalize(MovieSearchRequest.builder().imdb(" ").director("Guy Ritchie").build());
+
+        //Act
+        MovieSearchResponseDto loaded = searchResultCache.get(first, false, this::load);
+        MovieSearchResponseDto cached = searchResultCache.get(second, false, this::load);
+
+        //Assert
+        assertThat(cached).isSameAs(loaded);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void getAfterMovieOrGenreChangeAndThenLoadAgain() {
+
+        //Arrange
+        MovieSearchRequest request = MovieService.normalize(MovieSearchRequest.builder().query("Snatch").build());
+        searchResultCache.get(request, false, this::load);
+
+        //Act
+        catalogVersionService.onMovieChanged(MovieChangedEvent.deleted(1L));
+        searchResultCache.onMovieChanged(MovieChangedEvent.deleted(1L));
+        searchResultCache.get(request, false, this::load);
+        GenreChangedEvent renamed = new GenreChangedEvent(GenreChangedEvent.Type.SAVED, 1L, "crime");
+        catalogVersionService.onGenreChanged(renamed);
+        searchResultCache.onGenreChanged(renamed);
+        searchResultCache.get(request, false, this::load);
+
+        //Assert
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void getWithVersionBumpedButNoEventAndThenNeverServeStaleResult() {
+
+        //Arrange
+        MovieSearchRequest request = MovieService.normalize(MovieSearchRequest.builder().beginyear(2000).build());
+        searchResultCache.get(request, false, this::load);
+
+        //Act
+        catalogVersionService.onMovieChanged(MovieChangedEvent.saved(Movie.builder().id(2L).build()));
+        MovieSearchResponseDto result = searchResultCache.get(request, false, this::load);
+
+        //Assert
+        assertThat(result.getMovies().get(0).getId()).isEqualTo(2L);
+    }
+
+    @Test
+    void getWhenDisabledAndThenAlwaysLoad() {
+
+        //Arrange
+        movieProperties.getSearch().getResultCache().setEnabled(false);
+        searchResultCache = new SearchResultCache(catalogVersionService, movieProperties, new SimpleMeterRegistry());
+        MovieSearchRequest request = MovieSearchRequest.builder().build();
+
+        //Act
+        searchResultCache.get(request, false, this::load);
+        searchResultCache.get(request, false, this::load);
+
+        //Assert
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void statisticsAndThenReportHitRatioAndFootprint() {
+
+        //Arrange
+        MovieSearchRequest request = MovieSearchRequest.builder().director("Guy Ritchie").build();
+
+        //Act
+        searchResultCache.get(request, false, this::load);
+        searchResultCache.get(request, false, this::load);
+        searchResultCache.get(request, false, this::load);
+        searchResultCache.get(request, false, this::load);
+        CacheRegionStatisticsDto statistics = searchResultCache.statistics();
+
+        //Assert
+        assertThat(statistics.getRegion()).isEqualTo(SearchResultCache.REGION);
+        assertThat(statistics.getHitCount()).isEqualTo(3);
+        assertThat(statistics.getMissCount()).isEqualTo(1);
+        assertThat(statistics.getHitRatio()).isEqualTo(0.75);
+        assertThat(statistics.getSize()).isEqualTo(1);
+        assertThat(statistics.getEstimatedBytes()).isEqualTo(SearchResultCache.weigh(load()));
+        assertThat(meterRegistry.get("movie.search.cache.weight").gauge().value()).isEqualTo(statistics.getEstimatedBytes());
+        assertThat(meterRegistry.get("cache.gets").tag("cache", SearchResultCache.REGION).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void weighAndThenGrowWithRowsAndText() {
+        MovieSearchResponseDto movies = load();
+        MovieSearchResponseDto faceted = new MovieSearchResponseDto(movies.getMovies(),
+                new FacetCounter().movie(movies.getMovies().get(0)).toDto());
+
+        assertThat(SearchResultCache.weigh(new MovieSearchResponseDto(List.of(), null))).isLessThan(SearchResultCache.weigh(movies));
+        assertThat(SearchResultCache.weigh(movies)).isLessThan(SearchResultCache.weigh(faceted));
+        assertThat(SearchResultCache.weigh(response(MovieResponsetDto.builder().title("Snatch").build())))
+                .isLessThan(SearchResultCache.weigh(response(MovieResponsetDto.builder().title("Lock, Stock and Two Smoking Barrels").build())));
+    }
+
+    @Test
+    void getWithAndWithoutFacetsAndThenKeepSeparateEntries() {
+
+        //Arrange
+        MovieSearchRequest request = MovieSearchRequest.builder().director("Guy Ritchie").build();
+
+        //Act
+        searchResultCache.get(request, false, this::load);
+        searchResultCache.get(request, true, this::load);
+        searchResultCache.get(request, true, this::load);
+
+        //Assert
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void getWhileAnotherSearchLoadsAndThenNeitherWaitNorBlockInvalidation() throws Exception {
+
+        //Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MovieSearchRequest slow = MovieSearchRequest.builder().director("Guy Ritchie").build();
+        CompletableFuture<MovieSearchResponseDto> slowResult = CompletableFuture.supplyAsync(() -> searchResultCache.get(slow, false, () -> {
+            loading.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return load();
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        //Act
+        CompletableFuture<Void> others = CompletableFuture.runAsync(() -> {
+            searchResultCache.onMovieChanged(MovieChangedEvent.deleted(1L));
+            searchResultCache.get(MovieSearchRequest.builder().beginyear(2000).build(), false, this::load);
+        });
+
+        //Assert
+        others.get(5, TimeUnit.SECONDS);
+        release.countDown();
+        assertThat(slowResult.get(5, TimeUnit.SECONDS).getMovies()).hasSize(1);
+    }
+
+    @Test
+    void getAfterLoaderFailedAndThenLoadAgain() {
+
+        //Arrange
+        MovieSearchRequest request = MovieSearchRequest.builder().director("Guy Ritchie").build();
+
+        //Act
+        assertThatThrownBy(() -> searchResultCache.get(request, false, () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+        MovieSearchResponseDto result = searchResultCache.get(request, false, this::load);
+
+        //Assert
+        assertThat(result.getMovies()).hasSize(1);
+        assertThat(loads).hasValue(1);
+    }
+
+    private MovieSearchResponseDto load() {
+        int load = loads.incrementAndGet();
+        return response(MovieResponsetDto.builder().id((long) load).title("Snatch").director("Guy Ritchie").year(2000).genre("crime").imdb("8.2").build());
+    }
+
+    private static MovieSearchResponseDto response(MovieResponsetDto... movies) {
+        return MovieSearchResponseDto.builder().movies(List.of(movies)).build();
+    }
+}
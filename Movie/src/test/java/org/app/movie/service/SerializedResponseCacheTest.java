@@ -0,0 +1,163 @@
+package org.app.movie.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.dto.response.CatalogVersion;
+import org.app.movie.event.GenreChangedEvent;
+import org.app.movie.event.MovieChangedEvent;
+import org.app.movie.format.ResponseEncoder;
+import org.app.movie.format.ResponseFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SerializedResponseCacheTest {
+
+    private static final CatalogVersion V1 = new CatalogVersion("e-m1-g0", 1L);
+    private static final CatalogVersion V2 = new CatalogVersion("e-m2-g0", 2L);
+
+    private MovieProperties movieProperties;
+    private SerializedResponseCache serializedResponseCache;
+
+    @BeforeEach
+    public void setUp() {
+        movieProperties = new MovieProperties();
+        movieProperties.getResponseCache().setCompressionThreshold(DataSize.ofBytes(64));
+        serializedResponseCache = new SerializedResponseCache(new ResponseEncoder(new ObjectMapper()), movieProperties);
+    }
+
+    @Test
+    void getTwiceWithSameVersionAndThenLoadOnce() {
+
+        //Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        //Act
+        SerializedResponseCache.Entry first = serializedResponseCache.get("movies", "0:100", V1, ResponseFormat.JSON, () -> List.of(loads.incrementAndGet()));
+        SerializedResponseCache.Entry second = serializedResponseCache.get("movies", "0:100", V1, ResponseFormat.JSON, () -> List.of(loads.incrementAndGet()));
+        SerializedResponseCache.Entry newer = serializedResponseCache.get("movies", "0:100", V2, ResponseFormat.JSON, () -> List.of(loads.incrementAndGet()));
+
+        //Assert
+        assertThat(second).isSameAs(first);
+        assertThat(new String(first.body())).isEqualTo("[1]");
+        assertThat(new String(newer.body())).isEqualTo("[2]");
+        assertThat(first.gzip()).isNull();
+    }
+
+    @Test
+    void getSameKeyInTwoFormatsAndThenCacheEachEncoding() {
+
+        //Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        //Act
+        SerializedResponseCache.Entry json = serializedResponseCache.get("genres", "all", V1, ResponseFormat.JSON, () -> List.of(loads.incrementAndGet()));
+        SerializedResponseCache.Entry cbor = serializedResponseCache.get("genres", "all", V1, ResponseFormat.CBOR, () -> List.of(loads.incrementAndGet()));
+
+        //Assert
+        assertThat(loads).hasValue(2);
+        assertThat(cbor.format()).isEqualTo(ResponseFormat.CBOR);
+        assertThat(cbor.body()).isNotEqualTo(json.body());
+        assertThat(serializedResponseCache.estimatedSize()).isEqualTo(2);
+    }
+
+    @Test
+    void getLargeBodyAndThenKeepGzipCopy() throws Exception {
+
+        //Act
+        List<String> body = Collections.nCopies(50, "Sherlock Holmes");
+        SerializedResponseCache.Entry entry = serializedResponseCache.get("movies", "0:100", V1, ResponseFormat.JSON, () -> body);
+
+        //Assert
+        assertThat(entry.gzip()).isNotNull();
+        assertThat(entry.gzip().length).isLessThan(entry.body().length);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(entry.gzip()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(entry.body());
+        }
+    }
+
+    @Test
+    void getConcurrentlyAndThenBuildInOnePlace() throws Exception {
+
+        //Arrange
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        //Act
+        List<Future<SerializedResponseCache.Entry>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> serializedResponseCache.get("genres", "all", V1, ResponseFormat.JSON, () -> {
+                loads.incrementAndGet();
+                try {
+                    loading.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return List.of("comedy");
+            })));
+        }
+        loading.countDown();
+        for (Future<SerializedResponseCache.Entry> future : futures) {
+            assertThat(new String(future.get(5, TimeUnit.SECONDS).body())).isEqualTo("[\"comedy\"]");
+        }
+        executor.shutdown();
+
+        //Assert
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void getWithFailingLoaderAndThenRetryNextTime() {
+
+        //Act&Assert
+        assertThatThrownBy(() -> serializedResponseCache.get("genres", "all", V1, ResponseFormat.JSON, () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(new String(serializedResponseCache.get("genres", "all", V1, ResponseFormat.JSON, () -> List.of()).body())).isEqualTo("[]");
+    }
+
+    @Test
+    void changeEventsAndThenEvictAffectedNamespaces() {
+
+        //Arrange
+        serializedResponseCache.get(SerializedResponseCache.MOVIES, "0:100", V1, ResponseFormat.JSON, List::of);
+        serializedResponseCache.get(SerializedResponseCache.GENRES, "all", V1, ResponseFormat.JSON, List::of);
+
+        //Act&Assert
+        serializedResponseCache.onMovieChanged(MovieChangedEvent.deleted(1L));
+        assertThat(serializedResponseCache.estimatedSize()).isEqualTo(1);
+        serializedResponseCache.onGenreChanged(new GenreChangedEvent(GenreChangedEvent.Type.DELETED, 1L, "comedy"));
+        assertThat(serializedResponseCache.estimatedSize()).isZero();
+    }
+
+    @Test
+    void disabledCacheAndThenLoadEveryTime() {
+
+        //Arrange
+        movieProperties.getResponseCache().setEnabled(false);
+        AtomicInteger loads = new AtomicInteger();
+
+        //Act
+        serializedResponseCache.get("genres", "all", V1, ResponseFormat.JSON, () -> List.of(loads.incrementAndGet()));
+        serializedResponseCache.get("genres", "all", V1, ResponseFormat.JSON, () -> List.of(loads.incrementAndGet()));
+
+        //Assert
+        assertThat(loads).hasValue(2);
+    }
+}
@@ -0,0 +1,124 @@
+package org.app.movie.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.app.movie.config.MovieProperties;
+import org.app.movie.exception.SqlBudgetExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SqlBudgetAspectTest {
+
+    private static final String SELECT_GENRES = "select g.id, g.name from genre g where g.movie_id=?";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MovieProperties movieProperties = new MovieProperties();
+    private final SqlStatementInspector inspector = new SqlStatementInspector();
+    private Handler handler;
+
+    static class Handler {
+
+        SqlStatementInspector inspector;
+
+        @SqlBudget(2)
+        public void loadPage(int statements) {
+            for (int i = 0; i < statements; i++) {
+                inspector.inspect(SELECT_GENRES);
+            }
+        }
+    }
+
+    @BeforeEach
+    public void setUp() {
+        Handler target = new Handler();
+        target.inspector = inspector;
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new SqlBudgetAspect(new SqlBudgetReporter(meterRegistry, movieProperties)));
+        handler = factory.getProxy();
+    }
+
+    @Test
+    void countStatementsAndThenRecordThemPerMethod() {
+
+        //Act
+        handler.loadPage(1);
+        handler.loadPage(2);
+
+        //Assert
+        DistributionSummary summary = meterRegistry.find(SqlBudgetReporter.STATEMENTS).tags("kind", "service", "name", "Handler.loadPage").summary();
+        assertThat(summary).isNotNull();
+        assertThat(summary.count()).isEqualTo(2);
+        assertThat(summary.totalAmount()).isEqualTo(3);
+    }
+
+    @Test
+    void overBudgetInEnforceModeAndThenFail() {
+
+        //Arrange
+        movieProperties.getSql().setBudgetMode(MovieProperties.Sql.BudgetMode.ENFORCE);
+
+        //Act & Assert
+        assertThatThrownBy(() -> handler.loadPage(3))
+                .isInstanceOf(SqlBudgetExceededException.class)
+                .hasMessage("Handler.loadPage issued 3 SQL statements, budget is 2");
+    }
+
+    @Test
+    void overBudgetInLogModeAndThenOnlyReport() {
+
+        //Act
+        handler.loadPage(3);
+
+        //Assert
+        assertThat(meterRegistry.find(SqlBudgetReporter.STATEMENTS).summary().max()).isEqualTo(3);
+    }
+
+    @Test
+    void nestedScopesAndThenCountIntoEveryEnclosingScope() {
+
+        //Act
+        try (SqlStatementCounter.Scope request = SqlStatementCounter.open("GET /movie/{id}")) {
+            inspector.inspect("select 1");
+            handler.loadPage(2);
+
+            //Assert
+            assertThat(request.count()).isEqualTo(3);
+            assertThat(request.isOutermost()).isTrue();
+        }
+        inspector.inspect("select 1");
+    }
+
+    @Test
+    void repeatedSelectsAndThenFlagOnlyThoseAtThreshold() {
+
+        //Act
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open("GET /movie/all")) {
+            for (int i = 0; i < 5; i++) {
+                inspector.inspect(SELECT_GENRES);
+                inspector.inspect("insert into movie (id) values (?)");
+            }
+            inspector.inspect("select m.id from movie m");
+
+            //Assert
+            assertThat(scope.repeatedSelects(5)).containsExactly(Map.entry(SELECT_GENRES, 5));
+        }
+    }
+
+    @Test
+    void closeOutOfOrderAndThenFail() {
+        SqlStatementCounter.Scope outer = SqlStatementCounter.open("outer");
+        SqlStatementCounter.Scope inner = SqlStatementCounter.open("inner");
+
+        assertThatThrownBy(outer::close).isInstanceOf(IllegalStateException.class);
+
+        inner.close();
+        outer.close();
+    }
+}